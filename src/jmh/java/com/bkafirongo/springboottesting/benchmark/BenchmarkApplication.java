@@ -0,0 +1,64 @@
+package com.bkafirongo.springboottesting.benchmark;
+
+import com.bkafirongo.springboottesting.SpringbootTestingApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+
+import java.util.stream.Stream;
+
+/**
+ * Boots the application against an in-memory H2 database in MySQL mode, or against a started database container.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        return start(WebApplicationType.NONE, databaseName, properties);
+    }
+
+    // boots the full web stack on a random port, exposed as the local.server.port property
+    static ConfigurableApplicationContext startWeb(String databaseName, String... properties) {
+        return start(WebApplicationType.SERVLET, databaseName, Stream.concat(Stream.of(properties), Stream.of("server.port=0"))
+                .toArray(String[]::new));
+    }
+
+    // as above, on a started database container instead of H2
+    static ConfigurableApplicationContext startWeb(JdbcDatabaseContainer<?> database, String... properties) {
+        return start(WebApplicationType.SERVLET, Stream.of(
+                        "spring.datasource.url=" + database.getJdbcUrl(),
+                        "spring.datasource.username=" + database.getUsername(),
+                        "spring.datasource.password=" + database.getPassword()),
+                Stream.concat(Stream.of(properties), Stream.of("server.port=0")).toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String databaseName,
+                                                        String... properties) {
+        return start(webApplicationType, Stream.of(
+                "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                // H2 rejects MySQL's row by row fetch size
+                "employee.export.fetch-size=100"), properties);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, Stream<String> datasource,
+                                                        String... properties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // passed as command line arguments so they take precedence over application.yml
+        var args = Stream.of(datasource, Stream.of(
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN"), Stream.of(properties))
+                .flatMap(stream -> stream)
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringbootTestingApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+}
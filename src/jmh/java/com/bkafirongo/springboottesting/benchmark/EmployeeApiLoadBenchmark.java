@@ -0,0 +1,87 @@
+package com.bkafirongo.springboottesting.benchmark;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of GET /api/employees/{id} over HTTP with many concurrent clients, comparing Tomcat's
+ * platform thread pool with virtual threads. The employee cache is disabled so every request blocks on JDBC, and
+ * the database is MySQL in a Testcontainers container (Docker required): an in-memory H2 answers without waiting
+ * on a socket, which is exactly the blocking the comparison is about.
+ * <p>
+ * The virtual mode needs a Java 21 runtime and fails its setup on older ones; run with {@code -p threads=platform}
+ * there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(256)
+public class EmployeeApiLoadBenchmark {
+
+    private static final int PRELOADED_EMPLOYEES = 1_000;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private MySQLContainer<?> database;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(threads) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime, this is " + Runtime.version()
+                    + "; run with -p threads=platform");
+        }
+        database = new MySQLContainer<>("mysql:8.0")
+                .withDatabaseName("employeedb");
+        database.start();
+        context = BenchmarkApplication.startWeb(database,
+                "employee.threads.virtual=" + "virtual".equals(threads),
+                "employee.cache.maximum-size=0",
+                "server.tomcat.threads.max=50");
+        var employeeService = context.getBean(EmployeeService.class);
+        firstId = Long.MAX_VALUE;
+        for (int i = 0; i < PRELOADED_EMPLOYEES; i++) {
+            var employee = employeeService.saveEmployee(Employee.builder()
+                    .firstName("John")
+                    .lastName("Doe")
+                    .email("employee" + i + "@example.com")
+                    .build());
+            firstId = Math.min(firstId, employee.getId());
+        }
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/employees/";
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (database != null) {
+            database.stop();
+        }
+    }
+
+    @Benchmark
+    public int getEmployeeById() throws IOException, InterruptedException {
+        var id = firstId + ThreadLocalRandom.current().nextInt(PRELOADED_EMPLOYEES);
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + id)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
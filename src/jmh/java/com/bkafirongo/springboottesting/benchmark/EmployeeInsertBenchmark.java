@@ -0,0 +1,57 @@
+package com.bkafirongo.springboottesting.benchmark;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert throughput per id strategy. With identity every insert is executed on its own to read the generated key,
+ * the other strategies assign ids before the flush so Hibernate sends hibernate.jdbc.batch_size inserts per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmployeeInsertBenchmark {
+
+    @Param({"identity", "pooled", "time-ordered"})
+    public String strategy;
+
+    // employees persisted per operation, in one transaction
+    @Param({"1", "100"})
+    public int batch;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("insert-" + strategy, "employee.id.strategy=" + strategy, "employee.id.node=0");
+        employeeRepository = context.getBean(EmployeeRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Employee> saveAll() {
+        var employees = new ArrayList<Employee>(batch);
+        for (int i = 0; i < batch; i++) {
+            employees.add(Employee.builder()
+                    .firstName("John")
+                    .lastName("Doe")
+                    .email("employee" + emailSequence.incrementAndGet() + "@example.com")
+                    .build());
+        }
+        return employeeRepository.saveAll(employees);
+    }
+}
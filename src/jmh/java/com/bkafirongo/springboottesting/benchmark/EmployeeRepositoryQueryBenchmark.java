@@ -0,0 +1,70 @@
+package com.bkafirongo.springboottesting.benchmark;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmployeeRepositoryQueryBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("repository" + rows);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        var batch = new ArrayList<Employee>(1_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(Employee.builder()
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("employee" + i + "@example.com")
+                    .build());
+            if (batch.size() == 1_000) {
+                employeeRepository.batchInsert(batch);
+                batch = new ArrayList<>(1_000);
+            }
+        }
+        employeeRepository.batchInsert(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee findByJPQL() {
+        int i = ThreadLocalRandom.current().nextInt(rows);
+        return employeeRepository.findByJPQL("first" + i, "last" + i);
+    }
+
+    @Benchmark
+    public Employee findByJPQLNamedParam() {
+        int i = ThreadLocalRandom.current().nextInt(rows);
+        return employeeRepository.findByJPQLNamedParam("first" + i, "last" + i);
+    }
+
+    @Benchmark
+    public Employee findByNativeSQLParam() {
+        int i = ThreadLocalRandom.current().nextInt(rows);
+        return employeeRepository.findByNativeSQLParam("first" + i, "last" + i);
+    }
+
+    @Benchmark
+    public Employee findByNativeSQLNamed() {
+        int i = ThreadLocalRandom.current().nextInt(rows);
+        return employeeRepository.findByNativeSQLNamed("first" + i, "last" + i);
+    }
+}
@@ -0,0 +1,38 @@
+package com.bkafirongo.springboottesting.benchmark;
+
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import com.bkafirongo.springboottesting.search.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeSearchBenchmark {
+
+    @Param({"10000", "500000"})
+    public int size;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        searchIndex = new EmployeeSearchIndex();
+        for (int i = 0; i < size; i++) {
+            searchIndex.index(new EmployeeView(i + 1, "first" + i, "last" + (i % 1000), "employee" + i + "@example.com"));
+        }
+    }
+
+    // narrow prefix: the cost should not grow with the number of indexed employees
+    @Benchmark
+    public List<EmployeeView> searchPrefix() {
+        return searchIndex.search("first4242", 20);
+    }
+
+    @Benchmark
+    public List<EmployeeView> searchTwoWords() {
+        return searchIndex.search("last42 first42", 20);
+    }
+}
@@ -0,0 +1,84 @@
+package com.bkafirongo.springboottesting.benchmark;
+
+import com.bkafirongo.springboottesting.json.EmployeeJsonSerializer;
+import com.bkafirongo.springboottesting.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean serializer against {@link EmployeeJsonSerializer}. Run with the GC profiler to compare the bytes allocated
+ * per operation (gc.alloc.rate.norm): mvn -P jmh test-compile exec:exec -Djmh.args="EmployeeSerialization -prof gc"
+ * The write benchmarks stream into a sink the way the message converters write into the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    @Param({"bean", "precomputed"})
+    public String serializer;
+
+    private ObjectWriter writer;
+    private List<Employee> employees;
+    private Employee employee;
+    private final OutputStream sink = new DiscardingOutputStream();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(Employee.builder()
+                    .id(i + 1)
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("employee" + i + "@example.com")
+                    .build());
+        }
+        employee = employees.get(0);
+        // same defaults as the ObjectMapper Spring Boot configures for the controllers
+        var builder = Jackson2ObjectMapperBuilder.json();
+        if (serializer.equals("precomputed")) {
+            builder.modulesToInstall(new SimpleModule().addSerializer(new EmployeeJsonSerializer()));
+        }
+        writer = builder.build().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public void writeList() throws IOException {
+        writer.writeValue(sink, employees);
+    }
+
+    @Benchmark
+    public void writeOne() throws IOException {
+        writer.writeValue(sink, employee);
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bkafirongo.springboottesting.benchmark;
+
+import com.bkafirongo.springboottesting.cache.EmployeeCache;
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmployeeServiceBenchmark {
+
+    private static final int PRELOADED_EMPLOYEES = 1_000;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeCache employeeCache;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("service");
+        employeeService = context.getBean(EmployeeService.class);
+        employeeCache = context.getBean(EmployeeCache.class);
+        firstId = Long.MAX_VALUE;
+        for (int i = 0; i < PRELOADED_EMPLOYEES; i++) {
+            firstId = Math.min(firstId, employeeService.saveEmployee(newEmployee()).getId());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Lookup {
+        // false clears the employee cache before every lookup so each call reaches the database
+        @Param({"true", "false"})
+        public boolean cached;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        return employeeService.saveEmployee(newEmployee());
+    }
+
+    @Benchmark
+    public Object getEmployeeById(Lookup lookup) {
+        if (!lookup.cached) {
+            employeeCache.clear();
+        }
+        return employeeService.getEmployeeById(firstId + ThreadLocalRandom.current().nextInt(PRELOADED_EMPLOYEES));
+    }
+
+    private Employee newEmployee() {
+        return Employee.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("employee" + emailSequence.incrementAndGet() + "@example.com")
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.bkafirongo.springboottesting.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the JVM to the first successful response, for the fat jar and for the startup-optimized build
+ * (AOT, CDS archive and the startup profile). Build both with mvn -P startup package, then run
+ * mvn -P jmh test-compile exec:exec -Djmh.args="StartupBenchmark"
+ * The application connects to the database of application.yml; other settings, such as the database host, are passed
+ * as JVM options in the STARTUP_ARGS environment variable, e.g. STARTUP_ARGS="-DDB_HOST=db -Xmx512m". The request
+ * defaults to /api/employees?ids=1 and can be changed with -jvmArgsAppend -Dstartup.path=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+// the application runs in its own process, so one benchmark JVM is enough
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class StartupBenchmark {
+
+    private static final Path TARGET = Path.of(System.getProperty("startup.target", "target"));
+    // served through the employee service and repository, so the database path is part of the measurement
+    private static final String PATH = System.getProperty("startup.path", "/api/employees?ids=1");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"default", "startup"})
+    public String mode;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Process process;
+
+    @Benchmark
+    public int firstRequest() throws Exception {
+        int port = freePort();
+        process = new ProcessBuilder(command(port))
+                .redirectErrorStream(true)
+                .redirectOutput(TARGET.resolve("startup-benchmark-" + mode + ".log").toFile())
+                .start();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATH))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue()
+                        + ", see " + TARGET.resolve("startup-benchmark-" + mode + ".log"));
+            }
+            try {
+                var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (IOException ex) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No successful response from " + PATH + " within " + TIMEOUT);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private List<String> command(int port) {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("startup")) {
+            command.add("-XX:SharedArchiveFile=" + TARGET.resolve("springboot-testing.jsa"));
+            command.add("-Dspring.aot.enabled=true");
+            command.add("-Dspring.profiles.active=startup");
+        }
+        var extra = System.getenv().getOrDefault("STARTUP_ARGS", "").trim();
+        if (!extra.isEmpty()) {
+            command.addAll(Arrays.asList(extra.split("\\s+")));
+        }
+        command.add("-Dserver.port=" + port);
+        command.add("-jar");
+        command.add(jar().toString());
+        return command;
+    }
+
+    // the startup profile keeps the plain jar for itself and repackages the fat jar as -exec
+    private Path jar() {
+        if (mode.equals("startup")) {
+            return TARGET.resolve("springboot-testing.jar");
+        }
+        var fatJar = TARGET.resolve("springboot-testing-exec.jar");
+        return Files.exists(fatJar) ? fatJar : TARGET.resolve("springboot-testing.jar");
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bkafirongo.springboottesting.cache;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache of employees keyed by id, with a secondary email index.
+ * Entries are stored and handed out as copies so callers mutating an entity cannot corrupt the cache.
+ */
+@Component
+public class EmployeeCache implements MeterBinder {
+
+    private final Cache<Long, Employee> byId;
+    private final Cache<String, Long> idByEmail;
+
+    public EmployeeCache(@Value("${employee.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${employee.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Employee> getById(long id) {
+        return Optional.ofNullable(byId.getIfPresent(id)).map(EmployeeCache::copyOf);
+    }
+
+    public Optional<Employee> getByEmail(String email) {
+        var id = idByEmail.getIfPresent(email);
+        if (id == null) {
+            return Optional.empty();
+        }
+        var employee = byId.asMap().get(id);
+        // the email index may outlive or disagree with the id entry, in which case it is stale
+        if (employee == null || !email.equals(employee.getEmail())) {
+            idByEmail.invalidate(email);
+            return Optional.empty();
+        }
+        return Optional.of(copyOf(employee));
+    }
+
+    public void put(Employee employee) {
+        evict(employee.getId());
+        byId.put(employee.getId(), copyOf(employee));
+        if (employee.getEmail() != null) {
+            idByEmail.put(employee.getEmail(), employee.getId());
+        }
+    }
+
+    public void evict(long id) {
+        var previous = byId.asMap().remove(id);
+        if (previous != null && previous.getEmail() != null) {
+            idByEmail.asMap().remove(previous.getEmail(), id);
+        }
+    }
+
+    public void clear() {
+        byId.invalidateAll();
+        idByEmail.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "employees.byId");
+        CaffeineCacheMetrics.monitor(registry, idByEmail, "employees.byEmail");
+    }
+
+    public CacheStats idStats() {
+        return byId.stats();
+    }
+
+    public CacheStats emailStats() {
+        return idByEmail.stats();
+    }
+
+    public long size() {
+        return byId.estimatedSize();
+    }
+
+    private static Employee copyOf(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(employee.getVersion())
+                .build();
+    }
+}
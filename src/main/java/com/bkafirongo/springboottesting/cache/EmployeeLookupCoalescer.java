@@ -0,0 +1,194 @@
+package com.bkafirongo.springboottesting.cache;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges concurrent single id lookups into one {@code where id in (...)} query. The first caller of a batch runs
+ * the query on its own thread and hands every caller its row. When no other query is running it starts at once, so
+ * a lone caller never waits; otherwise later callers collect in the batch until a running query finishes, the batch
+ * is full or the window passes. A lookup for an id that is already queued or being loaded joins that lookup instead
+ * of adding another one. A zero window only deduplicates.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeLookupCoalescer implements MeterBinder {
+
+    private final EmployeeRepository employeeRepository;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private Batch open;
+    private int loading;
+    private final Map<Long, CompletableFuture<Optional<Employee>>> inFlight = new HashMap<>();
+
+    private Counter coalesced;
+    private DistributionSummary batchSizes;
+
+    public EmployeeLookupCoalescer(EmployeeRepository employeeRepository,
+                                   @Value("${employee.lookup.window:2ms}") Duration window,
+                                   @Value("${employee.lookup.max-batch-size:100}") int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("employee.lookup.max-batch-size must be positive");
+        }
+        this.employeeRepository = employeeRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        coalesced = Counter.builder("employee.lookup.coalesced")
+                .description("Lookups answered by an identical lookup already in flight")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("employee.lookup.batch.size")
+                .description("Distinct ids loaded per query")
+                .register(registry);
+    }
+
+    public Optional<Employee> findById(long id) {
+        CompletableFuture<Optional<Employee>> lookup;
+        Batch leading = null;
+        synchronized (lock) {
+            lookup = inFlight.get(id);
+            if (lookup != null) {
+                if (coalesced != null) {
+                    coalesced.increment();
+                }
+            } else {
+                if (open == null) {
+                    open = new Batch();
+                    leading = open;
+                }
+                lookup = new CompletableFuture<>();
+                open.lookups.put(id, lookup);
+                inFlight.put(id, lookup);
+                if (open.lookups.size() >= maxBatchSize) {
+                    open.ready.countDown();
+                    open = null;
+                }
+            }
+        }
+        if (leading != null) {
+            awaitWindow(leading);
+            load(leading);
+        }
+        try {
+            // entities are shared between the callers of a batch, so each one gets its own copy
+            return lookup.join().map(EmployeeLookupCoalescer::copyOf);
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private void awaitWindow(Batch batch) {
+        synchronized (lock) {
+            if (loading == 0) {
+                start(batch);
+                return;
+            }
+        }
+        if (windowNanos > 0) {
+            try {
+                batch.ready.await(windowNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                // the callers already queued still need an answer, so load what has been collected
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (lock) {
+            start(batch);
+        }
+    }
+
+    // guarded by lock
+    private void start(Batch batch) {
+        if (open == batch) {
+            open = null;
+        }
+        loading++;
+    }
+
+    private void load(Batch batch) {
+        var lookups = batch.lookups;
+        if (batchSizes != null) {
+            batchSizes.record(lookups.size());
+        }
+        var found = new HashMap<Long, Employee>(lookups.size() * 2);
+        Throwable failure = null;
+        try {
+            for (var employee : employeeRepository.findAllById(lookups.keySet())) {
+                found.put(employee.getId(), employee);
+            }
+        } catch (Throwable ex) {
+            // the callers get a query failure through their lookup; an Error also propagates here
+            failure = ex;
+            if (ex instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            // whatever happened, or every later lookup of these ids would join a lookup that never completes
+            finish(lookups);
+            if (failure == null) {
+                lookups.forEach((id, lookup) -> lookup.complete(Optional.ofNullable(found.get(id))));
+            } else {
+                var cause = failure;
+                lookups.values().forEach(lookup -> lookup.completeExceptionally(cause));
+            }
+        }
+    }
+
+    // later lookups of these ids start a new query, so they see writes committed after this one; the batch that
+    // collected while this query ran is loaded now instead of at the end of its window
+    private void finish(Map<Long, CompletableFuture<Optional<Employee>>> lookups) {
+        synchronized (lock) {
+            lookups.forEach(inFlight::remove);
+            loading--;
+            if (open != null) {
+                open.ready.countDown();
+            }
+        }
+    }
+
+    private static Employee copyOf(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(employee.getVersion())
+                .build();
+    }
+
+    private static final class Batch {
+        // only modified under lock while the batch is open, read by the leader after it is closed
+        final Map<Long, CompletableFuture<Optional<Employee>>> lookups = new LinkedHashMap<>();
+        // released when the batch is full or the query running before it finished
+        final CountDownLatch ready = new CountDownLatch(1);
+    }
+}
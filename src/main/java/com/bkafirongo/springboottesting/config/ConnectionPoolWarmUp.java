@@ -0,0 +1,66 @@
+package com.bkafirongo.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * Opens every pool up to its minimum idle size before the application reports ready, so the first requests
+ * after a deploy find established connections instead of paying for the TCP, TLS and authentication handshakes.
+ * Hikari would otherwise fill the pool in the background, one connection at a time.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "employee.datasource.warm-up", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ConnectionPoolWarmUp implements ApplicationRunner {
+
+    private final DataSource dataSource;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        HikariPools.of(dataSource).forEach(ConnectionPoolWarmUp::warmUp);
+    }
+
+    static int warmUp(HikariDataSource pool) {
+        // minimum idle is only defaulted to the maximum size once the pool is started
+        int target = pool.getMinimumIdle() < 0 ? pool.getMaximumPoolSize() : pool.getMinimumIdle();
+        long start = System.nanoTime();
+        var connections = new ArrayList<Connection>(target);
+        try {
+            // holding each connection forces the pool to open a new one for the next borrow
+            while (connections.size() < target) {
+                connections.add(pool.getConnection());
+            }
+        } catch (SQLException ex) {
+            // not fatal, the pool keeps trying in the background and requests wait for connections as usual
+            log.warn("Warm-up of pool {} stopped after {} of {} connections: {}",
+                    pool.getPoolName(), connections.size(), target, ex.getMessage());
+        } finally {
+            for (var connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    log.debug("Could not return a warm-up connection to pool {}", pool.getPoolName(), ex);
+                }
+            }
+        }
+        log.info("Warmed up pool {} with {} connections in {} ms",
+                pool.getPoolName(), connections.size(), (System.nanoTime() - start) / 1_000_000);
+        return connections.size();
+    }
+}
@@ -0,0 +1,47 @@
+package com.bkafirongo.springboottesting.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * Binary encodings and compression for the servlet API. JSON stays the first converter, so browsers and any
+ * client accepting {@code *}{@code /*} keep getting JSON; service callers ask for {@code application/cbor} or
+ * {@code application/x-jackson-smile}, and may send request bodies in either. Responses are compressed by a
+ * {@link ResponseCompressionFilter}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ContentEncodingConfig {
+
+    // built from Boot's builder so spring.jackson.* settings apply to every encoding, they replace Spring's defaults
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "employee.compression.enabled", havingValue = "true", matchIfMissing = true)
+    FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(
+            @Value("${employee.compression.min-response-size:2KB}") DataSize minResponseSize,
+            @Value("${employee.compression.mime-types:application/json,application/x-ndjson}") List<String> mimeTypes,
+            @Value("${employee.compression.zstd-level:3}") int zstdLevel) {
+        return new FilterRegistrationBean<>(new ResponseCompressionFilter((int) minResponseSize.toBytes(), mimeTypes, zstdLevel));
+    }
+}
@@ -0,0 +1,37 @@
+package com.bkafirongo.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the Hikari pools behind the application DataSource, which may be wrapped by the slow query log,
+ * the JDBC concurrency limiter and read/write routing.
+ */
+public final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    // the primary first, then the replicas
+    public static List<HikariDataSource> of(DataSource dataSource) {
+        var pools = new ArrayList<HikariDataSource>();
+        try {
+            if (dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+                for (var target : dataSource.unwrap(ReadWriteRoutingDataSource.class).targetDataSources()) {
+                    if (target instanceof HikariDataSource pool) {
+                        pools.add(pool);
+                    }
+                }
+            } else if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                pools.add(dataSource.unwrap(HikariDataSource.class));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot unwrap the connection pools of " + dataSource, ex);
+        }
+        return pools;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bkafirongo.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+
+/**
+ * Replaces the auto-configured DataSource with a {@link ReadWriteRoutingDataSource} when at least one
+ * {@code employee.datasource.replicas[n].url} is configured. The primary pool is still configured through
+ * {@code spring.datasource.*}.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.datasource.replicas[0].url")
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaProperties.class})
+public class ReadWriteRoutingConfig {
+
+    // closed by readWriteRoutingShutdown, other post processors may wrap this bean in proxies without a close method
+    @Bean(destroyMethod = "")
+    DataSource dataSource(DataSourceProperties properties, ReplicaProperties replicaProperties,
+                                          Environment environment) {
+        var primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        var replicas = new LinkedHashMap<String, DataSource>();
+        var replicaList = replicaProperties.getReplicas();
+        for (int i = 0; i < replicaList.size(); i++) {
+            var replica = replicaList.get(i);
+            var dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword())
+                    .build();
+            // same pool tuning and driver properties as the primary, sized by employee.datasource.replica-pool-size
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setMaximumPoolSize(replicaProperties.getReplicaPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, replicaProperties.getHealthCheckInterval());
+    }
+
+    @Bean
+    MeterBinder replicaHealthMetrics(DataSource dataSource) throws SQLException {
+        var routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        return registry -> {
+            routing.bindTo(registry);
+            // Boot only instruments the primary pool, the DataSource bean unwraps to
+            for (var pool : HikariPools.of(dataSource)) {
+                if (pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+            }
+        };
+    }
+
+    @Bean
+    DisposableBean readWriteRoutingShutdown(DataSource dataSource) throws SQLException {
+        return dataSource.unwrap(ReadWriteRoutingDataSource.class)::close;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    OncePerRequestFilter readYourWritesFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    ReadWriteRoutingDataSource.clearReadYourWrites();
+                }
+            }
+
+            @Override
+            protected boolean shouldNotFilterAsyncDispatch() {
+                return false;
+            }
+        };
+    }
+}
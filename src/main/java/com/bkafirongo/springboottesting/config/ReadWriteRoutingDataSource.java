@@ -0,0 +1,161 @@
+package com.bkafirongo.springboottesting.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * Connections are fetched lazily, on the first statement, because the transaction manager asks for one before the
+ * read-only flag of the transaction is published. Replicas are picked round robin among the healthy ones; a replica
+ * that fails to hand out a connection is ejected until the background health check sees it valid again. Once a
+ * thread has written, its later reads stay on the primary until {@link #clearReadYourWrites()} is called at the end of
+ * the request, so a request never misses its own writes because of replication lag.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> WROTE = new ThreadLocal<>();
+
+    static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final int validationTimeoutSeconds;
+    private final ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream().map(entry -> new Replica(entry.getKey(), entry.getValue())).toList();
+        this.validationTimeoutSeconds = (int) Math.max(1, healthCheckInterval.toSeconds());
+        setTargetDataSource(new Router(primary));
+        // reads the default auto-commit and isolation from a primary connection
+        afterPropertiesSet();
+        clearReadYourWrites();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.healthChecker.scheduleWithFixedDelay(this::checkReplicas,
+                healthCheckInterval.toMillis(), healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // to be called when a request completes, pooled threads must not carry the primary pin into the next one
+    public static void clearReadYourWrites() {
+        WROTE.remove();
+    }
+
+    int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    void checkReplicas() {
+        for (var replica : replicas) {
+            boolean healthy;
+            try (var connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException ex) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.warn("Replica {} is {}", replica.name, healthy ? "back in rotation" : "ejected");
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    private Connection route() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            WROTE.set(Boolean.TRUE);
+            return primary.getConnection();
+        }
+        if (WROTE.get() == null) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                var replica = replicas.get((start + i) % size);
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException ex) {
+                    log.warn("Replica {} is ejected: {}", replica.name, ex.getMessage());
+                    replica.healthy = false;
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // the primary followed by the replicas, for pool metrics and warm-up
+    public List<DataSource> targetDataSources() {
+        var targets = new ArrayList<DataSource>(replicas.size() + 1);
+        targets.add(primary);
+        replicas.forEach(replica -> targets.add(replica.dataSource));
+        return targets;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        for (var replica : replicas) {
+            Gauge.builder("employee.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .description("1 while the replica is in the read rotation")
+                    .register(registry);
+        }
+    }
+
+    // closes the primary and replica pools
+    @Override
+    public void close() throws Exception {
+        healthChecker.shutdownNow();
+        for (var replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    // delegates to the primary so pool metrics and unwrapping still find the primary pool
+    private final class Router extends DelegatingDataSource {
+
+        Router(DataSource primary) {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route();
+        }
+    }
+}
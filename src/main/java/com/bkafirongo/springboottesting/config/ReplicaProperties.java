@@ -0,0 +1,28 @@
+package com.bkafirongo.springboottesting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private int replicaPoolSize = 10;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        // default to the primary credentials
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,296 @@
+package com.bkafirongo.springboottesting.config;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses with zstd for clients that accept it, and with gzip for the others. Used instead of Tomcat's
+ * server.compression, which only knows gzip and would compress a zstd body a second time. The first minResponseSize
+ * bytes are buffered to decide: smaller bodies go out as they are, with a Content-Length. Streaming responses decide
+ * at their first flush, so their chunks are not held back.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    static final String ZSTD = "zstd";
+    static final String GZIP = "gzip";
+
+    private final int minResponseSize;
+    private final List<MimeType> mimeTypes;
+    private final int level;
+
+    public ResponseCompressionFilter(int minResponseSize, List<String> mimeTypes, int level) {
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes.stream().map(MimeTypeUtils::parseMimeType).toList();
+        this.level = level;
+    }
+
+    // the body of an async response is finished on its final dispatch
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpServletResponse responseToUse = response;
+        if (!isAsyncDispatch(request) && !(response instanceof CompressingResponse)) {
+            var encoding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding != null) {
+                responseToUse = new CompressingResponse(request, response, encoding);
+            }
+        }
+        filterChain.doFilter(request, responseToUse);
+        if (!isAsyncStarted(request) && responseToUse instanceof CompressingResponse compressingResponse) {
+            compressingResponse.finish();
+        }
+    }
+
+    // zstd when the client takes it, it is both smaller and cheaper to produce than gzip
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean gzip = false;
+        for (var coding : acceptEncoding.split(",")) {
+            var parts = coding.split(";");
+            var name = parts[0].trim();
+            if (accepted(parts)) {
+                if (name.equalsIgnoreCase(ZSTD)) {
+                    return ZSTD;
+                }
+                gzip |= name.equalsIgnoreCase(GZIP);
+            }
+        }
+        return gzip ? GZIP : null;
+    }
+
+    private static boolean accepted(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            var param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) > 0;
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean compressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        var mimeType = MimeTypeUtils.parseMimeType(contentType);
+        return mimeTypes.stream().anyMatch(candidate -> candidate.isCompatibleWith(mimeType));
+    }
+
+    private class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final String encoding;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target;
+        private boolean compressed;
+        private long contentLength = -1;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletRequest request, HttpServletResponse response, String encoding) {
+            super(response);
+            this.request = request;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called on this response");
+            }
+            if (outputStream == null) {
+                outputStream = new DecidingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called on this response");
+                }
+                outputStream = new DecidingOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        // a length set by the application is only right for the uncompressed body
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (target == null) {
+                contentLength = len;
+            } else if (!compressed) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+            // committing before the decision would rule out the Content-Length of a small body
+            if (target != null || outputStream == null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (target != null) {
+                super.resetBuffer();
+            }
+            buffer.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            buffer.reset();
+            contentLength = -1;
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (buffer.size() == 0) {
+                    // nothing written through this wrapper, e.g. after sendError
+                    return;
+                }
+                decide(false);
+            }
+            if (compressed) {
+                target.close();
+            }
+        }
+
+        private void decide(boolean large) throws IOException {
+            compressed = large && !isCommitted() && getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && compressible(getContentType());
+            if (compressed) {
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+                super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                target = encoding.equals(ZSTD)
+                        ? new ZstdOutputStream(super.getOutputStream(), level)
+                        // sync flush so a streamed chunk reaches the client when it is flushed
+                        : new GZIPOutputStream(super.getOutputStream(), true);
+            } else {
+                target = super.getOutputStream();
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                } else if (!large) {
+                    super.setContentLengthLong(buffer.size());
+                }
+            }
+            buffer.writeTo(target);
+            buffer.reset();
+        }
+
+        private class DecidingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                if (target != null) {
+                    target.write(b);
+                    return;
+                }
+                buffer.write(b);
+                if (buffer.size() >= minResponseSize) {
+                    decide(true);
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (target != null) {
+                    target.write(b, off, len);
+                    return;
+                }
+                buffer.write(b, off, len);
+                if (buffer.size() >= minResponseSize) {
+                    decide(true);
+                }
+            }
+
+            // a plain response is flushed once at the end of the body, only a streaming one needs bytes out early
+            @Override
+            public void flush() throws IOException {
+                if (target == null && request.isAsyncStarted()) {
+                    decide(true);
+                }
+                if (target != null) {
+                    target.flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("Non-blocking writes are not supported with response compression");
+            }
+        }
+    }
+}
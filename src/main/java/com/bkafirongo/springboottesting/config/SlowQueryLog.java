@@ -0,0 +1,116 @@
+package com.bkafirongo.springboottesting.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Records JDBC statements slower than a threshold, with their bind parameters and timings.
+ * Statements under the threshold cost one comparison. Slow ones are handed to a bounded ring buffer
+ * that a background thread drains to the {@code slow-query} logger; when the buffer is full the entry
+ * is dropped and counted rather than blocking the request thread.
+ */
+@Slf4j(topic = "slow-query")
+public class SlowQueryLog implements QueryExecutionListener, MeterBinder, DisposableBean {
+
+    record SlowQuery(long elapsedMillis, boolean success, boolean batch, String thread, String sql, String parameters) {
+    }
+
+    private final long thresholdMillis;
+    private final BlockingQueue<SlowQuery> buffer;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    public SlowQueryLog(Duration threshold, int bufferSize) {
+        this.thresholdMillis = threshold.toMillis();
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.writer = new Thread(this::drain, "slow-query-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        var slowQuery = new SlowQuery(execInfo.getElapsedTime(), execInfo.isSuccess(), execInfo.isBatch(),
+                Thread.currentThread().getName(),
+                queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")),
+                queryInfoList.stream().map(SlowQueryLog::parameters).collect(Collectors.joining("; ")));
+        if (buffer.offer(slowQuery)) {
+            recorded.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employee.jdbc.slow.queries", recorded, LongAdder::sum)
+                .description("Statements slower than the slow query threshold")
+                .register(registry);
+        FunctionCounter.builder("employee.jdbc.slow.queries.dropped", dropped, LongAdder::sum)
+                .description("Slow queries not logged because the buffer was full")
+                .register(registry);
+        Gauge.builder("employee.jdbc.slow.queries.buffered", buffer, BlockingQueue::size).register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        writer.interrupt();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    long recordedCount() {
+        return recorded.sum();
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                var slowQuery = buffer.take();
+                log.warn("{}ms success:{} batch:{} thread:{} query:[{}] params:[{}]",
+                        slowQuery.elapsedMillis(), slowQuery.success(), slowQuery.batch(), slowQuery.thread(),
+                        slowQuery.sql(), slowQuery.parameters());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String parameters(QueryInfo queryInfo) {
+        return queryInfo.getParametersList().stream()
+                .map(operations -> operations.stream()
+                        .filter(operation -> operation.getArgs().length > 1)
+                        .map(SlowQueryLog::parameter)
+                        .collect(Collectors.joining(",", "(", ")")))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String parameter(ParameterSetOperation operation) {
+        return ParameterSetOperation.isSetNullParameterOperation(operation) ? "null" : String.valueOf(operation.getArgs()[1]);
+    }
+}
@@ -0,0 +1,43 @@
+package com.bkafirongo.springboottesting.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replaces {@code spring.jpa.show-sql} with a threshold based {@link SlowQueryLog}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    @Bean
+    SlowQueryLog slowQueryLog(@Value("${employee.slow-query.threshold:200ms}") Duration threshold,
+                              @Value("${employee.slow-query.buffer-size:1024}") int bufferSize) {
+        return new SlowQueryLog(threshold, bufferSize);
+    }
+
+    @Bean
+    static BeanPostProcessor slowQueryLogDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(slowQueryLog.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.bkafirongo.springboottesting.config;
+
+import com.bkafirongo.springboottesting.cache.EmployeeCache;
+import com.bkafirongo.springboottesting.cache.EmployeeLookupCoalescer;
+import com.bkafirongo.springboottesting.controller.EmployeeController;
+import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Support for the startup-optimized mode, see the {@code startup} Spring and Maven profiles.
+ * <p>
+ * With {@code spring.main.lazy-initialization=true} only the employee read/write path stays eager, so the first
+ * request does not build it; admin, transfer and job endpoints are created on their first use. Both beans are
+ * registered unconditionally and decide at runtime, because AOT processing fixes the set of beans at build time.
+ */
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+    static final String EXIT_AFTER_START = "employee.startup.exit-after-start";
+
+    @Bean
+    static LazyInitializationExcludeFilter employeeRequestPathLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                EmployeeRepository.class, EmployeeCache.class, EmployeeLookupCoalescer.class,
+                EmployeeService.class, EmployeeController.class);
+    }
+
+    // the CDS training run of the Maven startup profile: stop once the context is up, before the runners touch the database
+    @Bean
+    ApplicationListener<ApplicationStartedEvent> exitAfterStartListener() {
+        return event -> {
+            if (event.getApplicationContext().getEnvironment().getProperty(EXIT_AFTER_START, Boolean.class, false)) {
+                log.info("Started in {} ms, exiting because {} is set",
+                        event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis(), EXIT_AFTER_START);
+                System.exit(SpringApplication.exit(event.getApplicationContext()));
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.config.HikariPools;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/employees/pool")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ConnectionPoolController {
+
+    private final DataSource dataSource;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    List<Map<String, Object>> getPoolStats() {
+        return HikariPools.of(dataSource).stream().map(this::toMap).toList();
+    }
+
+    private Map<String, Object> toMap(HikariDataSource pool) {
+        var stats = new LinkedHashMap<String, Object>();
+        stats.put("name", pool.getPoolName());
+        stats.put("maximumPoolSize", pool.getMaximumPoolSize());
+        stats.put("minimumIdle", pool.getMinimumIdle());
+        var bean = pool.getHikariPoolMXBean();
+        // null until the first connection is requested
+        if (bean != null) {
+            int active = bean.getActiveConnections();
+            stats.put("active", active);
+            stats.put("idle", bean.getIdleConnections());
+            stats.put("total", bean.getTotalConnections());
+            stats.put("pending", bean.getThreadsAwaitingConnection());
+            stats.put("saturation", (double) active / pool.getMaximumPoolSize());
+        }
+        var registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            var timeouts = registry.find("hikaricp.connections.timeout").tag("pool", pool.getPoolName()).counter();
+            stats.put("timeouts", timeouts == null ? 0 : (long) timeouts.count());
+            stats.put("acquire", toMap(registry.find("hikaricp.connections.acquire").tag("pool", pool.getPoolName()).timer()));
+            stats.put("usage", toMap(registry.find("hikaricp.connections.usage").tag("pool", pool.getPoolName()).timer()));
+        }
+        return stats;
+    }
+
+    // buckets are the service level objectives configured under management.metrics.distribution.slo
+    private static Map<String, Object> toMap(Timer timer) {
+        var stats = new LinkedHashMap<String, Object>();
+        if (timer == null) {
+            return stats;
+        }
+        var snapshot = timer.takeSnapshot();
+        stats.put("count", snapshot.count());
+        stats.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        stats.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        var histogram = new LinkedHashMap<String, Double>();
+        for (var bucket : snapshot.histogramCounts()) {
+            histogram.put("le " + (long) bucket.bucket(TimeUnit.MILLISECONDS) + "ms", bucket.count());
+        }
+        stats.put("histogram", histogram);
+        return stats;
+    }
+}
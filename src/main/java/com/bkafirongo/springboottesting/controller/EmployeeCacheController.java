@@ -0,0 +1,44 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.cache.EmployeeCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/employees/cache")
+@RequiredArgsConstructor
+public class EmployeeCacheController {
+
+    private final EmployeeCache employeeCache;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    Map<String, Object> getCacheStats() {
+        var stats = new LinkedHashMap<String, Object>();
+        stats.put("size", employeeCache.size());
+        stats.put("byId", toMap(employeeCache.idStats()));
+        stats.put("byEmail", toMap(employeeCache.emailStats()));
+        return stats;
+    }
+
+    @DeleteMapping
+    ResponseEntity<String> clearCache() {
+        employeeCache.clear();
+        return ResponseEntity.ok("Employee cache cleared");
+    }
+
+    private static Map<String, Object> toMap(CacheStats cacheStats) {
+        var stats = new LinkedHashMap<String, Object>();
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("evictions", cacheStats.evictionCount());
+        return stats;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.outbox.EmployeeChangeStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/employees/changes")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeChangeController {
+
+    private final EmployeeChangeStream changeStream;
+
+    // resumes after the Last-Event-ID an EventSource sends on reconnect, or after the given offset; both are publish
+    // sequences, the SSE ids of the events
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             @RequestParam(value = "after", defaultValue = "0") long after) {
+        return changeStream.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
@@ -1,20 +1,41 @@
 package com.bkafirongo.springboottesting.controller;
 
+import com.bkafirongo.springboottesting.exception.PreconditionFailedException;
 import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeBulkResult;
+import com.bkafirongo.springboottesting.model.EmployeePage;
+import com.bkafirongo.springboottesting.model.EmployeeView;
 import com.bkafirongo.springboottesting.service.EmployeeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/employees")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class EmployeeController {
 
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -22,36 +43,143 @@ public class EmployeeController {
         return employeeService.saveEmployee(employee);
     }
 
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    List<EmployeeBulkResult> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     List<Employee> getAllEmployees() {
         return employeeService.getAllEmployees();
     }
 
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    List<Employee> getEmployeesByIds(@RequestParam List<Long> ids) {
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+        var writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> employeeService.streamAllEmployees(employee -> {
+            try {
+                writer.writeValue(outputStream, employee);
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/page")
+    @ResponseStatus(HttpStatus.OK)
+    EmployeePage<Employee> getEmployeesPage(@RequestParam(required = false) String cursor,
+                                  @RequestParam(defaultValue = "0") int size) {
+        return employeeService.getEmployeesPage(cursor, size);
+    }
+
+    @GetMapping("/views")
+    @ResponseStatus(HttpStatus.OK)
+    MappingJacksonValue getEmployeeViews(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "0") int size,
+                                         @RequestParam(required = false) Set<String> fields) {
+        return withFields(employeeService.getEmployeeViewsPage(cursor, size), fields);
+    }
+
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    MappingJacksonValue searchEmployees(@RequestParam String firstName,
+                                        @RequestParam String lastName,
+                                        @RequestParam(required = false) Set<String> fields) {
+        return withFields(employeeService.searchEmployees(firstName, lastName), fields);
+    }
+
+    @GetMapping(value = "/search", params = "q")
+    @ResponseStatus(HttpStatus.OK)
+    MappingJacksonValue searchEmployeesByPrefix(@RequestParam("q") String query,
+                                                @RequestParam(defaultValue = "0") int limit,
+                                                @RequestParam(required = false) Set<String> fields) {
+        return withFields(employeeService.searchEmployeesByPrefix(query, limit), fields);
+    }
+
     @GetMapping("/{id}")
     ResponseEntity<Employee> getEmployeeById(@PathVariable Long id) {
+        // a matching If-None-Match is answered with 304 by Spring from the ETag set here
         return employeeService.getEmployeeById(id)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
-    ResponseEntity<Employee> updateEmployee(@PathVariable Long id, @RequestBody Employee employee) {
-        return employeeService.getEmployeeById(id)
-                .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
-                    var emp = employeeService.updateEmployee(savedEmployee);
-                    return ResponseEntity.ok(emp);
-                })
+    ResponseEntity<Employee> updateEmployee(@PathVariable Long id, @RequestBody Employee employee,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        employee.setId(id);
+        return employeeService.updateEmployee(employee, ifMatchVersion(ifMatch))
+                .map(emp -> ResponseEntity.ok().eTag(eTag(emp)).body(emp))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    ResponseEntity<Employee> patchEmployee(@PathVariable Long id, @RequestBody Map<String, Object> patch,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return employeeService.patchEmployee(id, patch, ifMatchVersion(ifMatch))
+                .map(emp -> ResponseEntity.ok().eTag(eTag(emp)).body(emp))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
-    ResponseEntity<String> deleteEmployee(@PathVariable Long id) {
-         employeeService.deleteEmployee(id);
+    ResponseEntity<String> deleteEmployee(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+         employeeService.deleteEmployee(id, ifMatchVersion(ifMatch));
          return ResponseEntity.ok("Employee deleted successfully");
     }
 
+    static String eTag(Employee employee) {
+        return "\"" + employee.getVersion() + "\"";
+    }
+
+    // null when the write is unconditional (no header or "*"), otherwise the version the client last saw
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            // an entity tag we never issued cannot match the current representation
+            throw new PreconditionFailedException("If-Match does not match any version : " + ifMatch);
+        }
+    }
+
+    // sparse fieldsets: ?fields=email,lastName serializes only those properties of each EmployeeView
+    private static MappingJacksonValue withFields(Object body, Set<String> fields) {
+        SimpleBeanPropertyFilter filter;
+        if (fields == null || fields.isEmpty()) {
+            filter = SimpleBeanPropertyFilter.serializeAll();
+        } else {
+            for (var field : fields) {
+                if (!EmployeeView.FIELDS.contains(field)) {
+                    throw new IllegalArgumentException("Unknown field : " + field);
+                }
+            }
+            filter = SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        }
+        var value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(EmployeeView.FIELDS_FILTER, filter));
+        return value;
+    }
+
 }
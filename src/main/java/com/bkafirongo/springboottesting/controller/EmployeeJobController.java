@@ -0,0 +1,74 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+import com.bkafirongo.springboottesting.service.EmployeeJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static com.bkafirongo.springboottesting.controller.EmployeeTransferController.TEXT_CSV_VALUE;
+
+// long running bulk operations: submitting answers 202 right away, the job is then polled by id
+@RestController
+@RequestMapping("/api/employees/jobs")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeJobController {
+
+    private final EmployeeJobService jobService;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<EmployeeJob> submitJob(@RequestBody EmployeeJob job) {
+        return accepted(jobService.submitJob(job.getType(), job.getParameters()));
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    ResponseEntity<EmployeeJob> submitCsvImport(InputStream body) throws IOException {
+        return accepted(jobService.submitImport(EmployeeTransferFormat.CSV, body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<EmployeeJob> submitNdjsonImport(InputStream body) throws IOException {
+        return accepted(jobService.submitImport(EmployeeTransferFormat.NDJSON, body));
+    }
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    List<EmployeeJob> getRecentJobs(@RequestParam(defaultValue = "20") int limit) {
+        return jobService.getRecentJobs(limit);
+    }
+
+    @GetMapping("/{id}")
+    ResponseEntity<EmployeeJob> getJob(@PathVariable("id") long id) {
+        return jobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/cancel")
+    @ResponseStatus(HttpStatus.OK)
+    EmployeeJob cancelJob(@PathVariable("id") long id) {
+        return jobService.cancelJob(id);
+    }
+
+    @PostMapping("/{id}/resume")
+    @ResponseStatus(HttpStatus.OK)
+    EmployeeJob resumeJob(@PathVariable("id") long id) {
+        return jobService.resumeJob(id);
+    }
+
+    private static ResponseEntity<EmployeeJob> accepted(EmployeeJob job) {
+        var location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/employees/jobs/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+}
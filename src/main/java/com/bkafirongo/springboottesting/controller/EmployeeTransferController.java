@@ -0,0 +1,76 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+import com.bkafirongo.springboottesting.service.EmployeeTransferService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// whole-directory transfers: rows are streamed both ways, neither side is held in memory
+@RestController
+@RequestMapping("/api/employees")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeTransferController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final EmployeeTransferService transferService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping(value = "/export", produces = TEXT_CSV_VALUE)
+    ResponseEntity<StreamingResponseBody> exportCsv() {
+        return export(EmployeeTransferFormat.CSV, "employees.csv");
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> exportNdjson() {
+        return export(EmployeeTransferFormat.NDJSON, "employees.ndjson");
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> importCsv(InputStream body) {
+        return importEmployees(EmployeeTransferFormat.CSV, body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> importNdjson(InputStream body) {
+        return importEmployees(EmployeeTransferFormat.NDJSON, body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(EmployeeTransferFormat format, String filename) {
+        StreamingResponseBody body = outputStream -> transferService.exportEmployees(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    // one NDJSON progress line per imported batch, flushed so the client can follow along
+    private ResponseEntity<StreamingResponseBody> importEmployees(EmployeeTransferFormat format, InputStream upload) {
+        var writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> transferService.importEmployees(format, upload, progress -> {
+            try {
+                writer.writeValue(outputStream, progress);
+                outputStream.write('\n');
+                outputStream.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
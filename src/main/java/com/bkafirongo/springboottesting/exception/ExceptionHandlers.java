@@ -1,15 +1,40 @@
 package com.bkafirongo.springboottesting.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class ExceptionHandlers {
 
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<String> resourceNotFoundException(ResourceNotFoundException ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
         return new ResponseEntity(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> illegalArgumentException(IllegalArgumentException ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> preconditionFailedException(PreconditionFailedException ex) {
+        count(ex, HttpStatus.PRECONDITION_FAILED);
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private void count(Exception ex, HttpStatus status) {
+        meterRegistry.ifAvailable(registry -> registry.counter("employee.exceptions",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment());
+    }
 }
@@ -0,0 +1,45 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+// deletes every employee of one email domain: {"domain": "contractor.example.com"}
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmailDomainDeleteJobHandler implements EmployeeJobHandler {
+
+    private final EmployeeService employeeService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public EmployeeJob.Type type() {
+        return EmployeeJob.Type.EMAIL_DOMAIN_DELETE;
+    }
+
+    @Override
+    public void validate(Map<String, String> parameters) {
+        JobParameters.domain(parameters, "domain");
+    }
+
+    @Override
+    public void run(EmployeeJob job, EmployeeJobContext context) throws InterruptedException {
+        var domain = JobParameters.domain(job.getParameters(), "domain");
+        boolean done = false;
+        while (!done) {
+            context.awaitNextChunk();
+            var chunk = transactionTemplate.execute(status -> {
+                var result = employeeService.deleteByEmailDomain(context.checkpoint(), context.chunkSize(), domain);
+                context.recordChunk(result.getLastId(), result.getProcessed(), result.getFailed());
+                return result;
+            });
+            done = chunk.isDone();
+        }
+    }
+}
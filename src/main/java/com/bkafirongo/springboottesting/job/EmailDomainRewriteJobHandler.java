@@ -0,0 +1,50 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+// moves every address of one email domain to another: {"from": "old.example.com", "to": "example.com"}
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmailDomainRewriteJobHandler implements EmployeeJobHandler {
+
+    private final EmployeeService employeeService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public EmployeeJob.Type type() {
+        return EmployeeJob.Type.EMAIL_DOMAIN_REWRITE;
+    }
+
+    @Override
+    public void validate(Map<String, String> parameters) {
+        var from = JobParameters.domain(parameters, "from");
+        var to = JobParameters.domain(parameters, "to");
+        if (from.equalsIgnoreCase(to)) {
+            throw new IllegalArgumentException("Job parameters from and to are the same domain : " + from);
+        }
+    }
+
+    @Override
+    public void run(EmployeeJob job, EmployeeJobContext context) throws InterruptedException {
+        var from = JobParameters.domain(job.getParameters(), "from");
+        var to = JobParameters.domain(job.getParameters(), "to");
+        boolean done = false;
+        while (!done) {
+            context.awaitNextChunk();
+            var chunk = transactionTemplate.execute(status -> {
+                var result = employeeService.rewriteEmailDomain(context.checkpoint(), context.chunkSize(), from, to);
+                context.recordChunk(result.getLastId(), result.getProcessed(), result.getFailed());
+                return result;
+            });
+            done = chunk.isDone();
+        }
+    }
+}
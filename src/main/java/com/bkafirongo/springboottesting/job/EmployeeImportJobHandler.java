@@ -0,0 +1,78 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+import com.bkafirongo.springboottesting.service.EmployeeTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Imports an upload stored by {@link EmployeeJobUploads}: {"format": "CSV", "upload": "..."}. Each batch commits on
+ * its own and the checkpoint is the number of rows read, so a resumed job re-reads at most one batch, whose rows are
+ * then reported as duplicates.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeImportJobHandler implements EmployeeJobHandler {
+
+    private final EmployeeTransferService transferService;
+    private final EmployeeJobUploads uploads;
+
+    @Override
+    public EmployeeJob.Type type() {
+        return EmployeeJob.Type.IMPORT;
+    }
+
+    @Override
+    public void validate(Map<String, String> parameters) {
+        format(parameters);
+        if (!uploads.exists(JobParameters.required(parameters, "upload"))) {
+            throw new IllegalArgumentException("Import upload not found : " + parameters.get("upload"));
+        }
+    }
+
+    @Override
+    public void run(EmployeeJob job, EmployeeJobContext context) throws IOException, InterruptedException {
+        var uploadId = JobParameters.required(job.getParameters(), "upload");
+        context.awaitNextChunk();
+        var reported = new long[2];
+        try (var input = uploads.open(uploadId)) {
+            transferService.importEmployees(format(job.getParameters()), input, context.checkpoint(), progress -> {
+                // totals of this run, the job accumulates over resumes
+                context.recordChunk(progress.getProcessed(), progress.getCreated() - reported[0],
+                        progress.getFailed() - reported[1]);
+                reported[0] = progress.getCreated();
+                reported[1] = progress.getFailed();
+                if (progress.getMessage() != null) {
+                    throw new IllegalArgumentException(progress.getMessage());
+                }
+                if (!progress.isDone()) {
+                    try {
+                        context.awaitNextChunk();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new EmployeeJobStoppedException(EmployeeJob.Status.QUEUED, "Interrupted");
+                    }
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        uploads.delete(uploadId);
+    }
+
+    private static EmployeeTransferFormat format(Map<String, String> parameters) {
+        var format = JobParameters.required(parameters, "format");
+        try {
+            return EmployeeTransferFormat.valueOf(format);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown import format : " + format, ex);
+        }
+    }
+}
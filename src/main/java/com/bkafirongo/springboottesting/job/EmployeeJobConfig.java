@@ -0,0 +1,11 @@
+package com.bkafirongo.springboottesting.job;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(EmployeeJobProperties.class)
+public class EmployeeJobConfig {
+}
@@ -0,0 +1,85 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.repository.EmployeeJobRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Progress, throttling and cancellation of one run of a job.
+ */
+public class EmployeeJobContext {
+
+    private final EmployeeJobRepository jobRepository;
+    private final EmployeeJob job;
+    private final String runToken;
+    private final EmployeeJobProperties.Throughput throughput;
+    private final Duration heartbeatInterval;
+    private final Clock clock;
+    private final BooleanSupplier stopping;
+
+    private long checkpoint;
+    private long chunkStartedNanos;
+    private long chunkRows;
+
+    EmployeeJobContext(EmployeeJobRepository jobRepository, EmployeeJob job, String runToken,
+                       EmployeeJobProperties.Throughput throughput, Duration leaseTimeout, Clock clock, BooleanSupplier stopping) {
+        this.jobRepository = jobRepository;
+        this.job = job;
+        this.runToken = runToken;
+        this.throughput = throughput;
+        this.heartbeatInterval = leaseTimeout.dividedBy(3);
+        this.clock = clock;
+        this.stopping = stopping;
+        this.checkpoint = job.getCheckpoint();
+    }
+
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    public int chunkSize() {
+        return throughput.getChunkSize();
+    }
+
+    // call inside the chunk's transaction, so the checkpoint commits or rolls back with the work it covers;
+    // throws when another runner took the job over, rolling the chunk back
+    public void recordChunk(long checkpoint, long processed, long failed) {
+        heartbeat(checkpoint, processed, failed);
+        this.checkpoint = checkpoint;
+        this.chunkRows = processed + failed;
+    }
+
+    // call outside any transaction before each chunk: stops the job if asked to, and paces it to rows-per-second
+    public void awaitNextChunk() throws InterruptedException {
+        throwIfStopped();
+        if (throughput.getRowsPerSecond() > 0 && chunkStartedNanos != 0) {
+            long due = chunkStartedNanos + chunkRows * 1_000_000_000L / throughput.getRowsPerSecond();
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                Thread.sleep(Math.min(wait, heartbeatInterval.toNanos()) / 1_000_000 + 1);
+                // keep the lease while throttled
+                heartbeat(checkpoint, 0, 0);
+                throwIfStopped();
+            }
+        }
+        chunkStartedNanos = System.nanoTime();
+        chunkRows = 0;
+    }
+
+    private void heartbeat(long checkpoint, long processed, long failed) {
+        if (jobRepository.recordProgress(job.getId(), runToken, checkpoint, processed, failed, clock.instant()) == 0) {
+            throw new EmployeeJobStoppedException(EmployeeJob.Status.RUNNING, "Lease lost at checkpoint " + this.checkpoint);
+        }
+    }
+
+    private void throwIfStopped() {
+        if (jobRepository.isCancelRequested(job.getId())) {
+            throw new EmployeeJobStoppedException(EmployeeJob.Status.CANCELLED, "Cancelled at checkpoint " + checkpoint);
+        }
+        if (stopping.getAsBoolean()) {
+            throw new EmployeeJobStoppedException(EmployeeJob.Status.QUEUED, "Interrupted by shutdown at checkpoint " + checkpoint);
+        }
+    }
+}
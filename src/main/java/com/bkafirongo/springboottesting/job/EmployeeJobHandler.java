@@ -0,0 +1,16 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+
+import java.util.Map;
+
+public interface EmployeeJobHandler {
+
+    EmployeeJob.Type type();
+
+    // rejects missing or malformed parameters with an IllegalArgumentException before the job is queued
+    void validate(Map<String, String> parameters);
+
+    // works from context.checkpoint() to the end, calling awaitNextChunk before and recordChunk within every chunk
+    void run(EmployeeJob job, EmployeeJobContext context) throws Exception;
+}
@@ -0,0 +1,34 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.jobs")
+public class EmployeeJobProperties {
+
+    private int concurrency = 2;
+    private Duration leaseTimeout = Duration.ofMinutes(2);
+    private DataSize uploadPartSize = DataSize.ofMegabytes(1);
+    private Map<EmployeeJob.Type, Throughput> types = new EnumMap<>(EmployeeJob.Type.class);
+
+    public Throughput throughput(EmployeeJob.Type type) {
+        return types.getOrDefault(type, new Throughput());
+    }
+
+    @Getter
+    @Setter
+    public static class Throughput {
+        private int chunkSize = 500;
+        // 0 means unthrottled
+        private int rowsPerSecond;
+    }
+}
@@ -0,0 +1,145 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.repository.EmployeeJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Claims queued jobs, and running jobs whose lease expired, up to the configured concurrency and runs them on the
+ * runner's own bounded executor. Claiming is a conditional update, so several instances can share the job table.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class EmployeeJobRunner implements MeterBinder {
+
+    private final EmployeeJobRepository jobRepository;
+    private final Map<EmployeeJob.Type, EmployeeJobHandler> handlers = new EnumMap<>(EmployeeJob.Type.class);
+    private final EmployeeJobProperties properties;
+    // not a bean, so the auto-configured applicationTaskExecutor stays in place
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final AtomicInteger running = new AtomicInteger();
+    private volatile boolean stopping;
+    private Clock clock = Clock.systemUTC();
+    private MeterRegistry meterRegistry;
+
+    public EmployeeJobRunner(EmployeeJobRepository jobRepository, List<EmployeeJobHandler> handlers,
+                             EmployeeJobProperties properties) {
+        this.jobRepository = jobRepository;
+        handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+        this.properties = properties;
+        // bounded on purpose: jobs beyond the concurrency wait in the employee_jobs table, not in memory
+        executor.setCorePoolSize(properties.getConcurrency());
+        executor.setMaxPoolSize(properties.getConcurrency());
+        executor.setQueueCapacity(properties.getConcurrency());
+        executor.setThreadNamePrefix("employee-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        Gauge.builder("employee.jobs.running", running, AtomicInteger::get).register(registry);
+    }
+
+    public EmployeeJobHandler handler(EmployeeJob.Type type) {
+        var handler = handlers.get(type);
+        if (handler == null) {
+            throw new IllegalArgumentException("Unsupported job type : " + type);
+        }
+        return handler;
+    }
+
+    @Scheduled(fixedDelayString = "${employee.jobs.poll-interval:PT1S}")
+    public synchronized void dispatch() {
+        int free = properties.getConcurrency() - running.get();
+        if (stopping || free <= 0) {
+            return;
+        }
+        var now = clock.instant();
+        var staleBefore = now.minus(properties.getLeaseTimeout());
+        for (var id : jobRepository.findClaimable(staleBefore, PageRequest.ofSize(free))) {
+            var runToken = UUID.randomUUID().toString();
+            if (jobRepository.claim(id, runToken, now, staleBefore) == 1) {
+                running.incrementAndGet();
+                executor.execute(() -> run(id, runToken));
+            }
+        }
+    }
+
+    private void run(long id, String runToken) {
+        try {
+            runClaimed(id, runToken);
+        } finally {
+            // outermost, so a job that cannot even be loaded or finished does not keep its slot forever
+            running.decrementAndGet();
+        }
+    }
+
+    private void runClaimed(long id, String runToken) {
+        EmployeeJob.Status status = EmployeeJob.Status.FAILED;
+        String message = null;
+        EmployeeJob.Type type = null;
+        try {
+            var job = jobRepository.findById(id).orElseThrow();
+            type = job.getType();
+            var context = new EmployeeJobContext(jobRepository, job, runToken, properties.throughput(type),
+                    properties.getLeaseTimeout(), clock, () -> stopping);
+            log.info("Running job {} {} from checkpoint {}", id, type, job.getCheckpoint());
+            handler(type).run(job, context);
+            status = EmployeeJob.Status.COMPLETED;
+        } catch (EmployeeJobStoppedException ex) {
+            status = ex.getStatus();
+            message = ex.getMessage();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            status = EmployeeJob.Status.QUEUED;
+            message = "Interrupted";
+        } catch (Exception ex) {
+            log.warn("Job {} {} failed", id, type, ex);
+            message = ex.getMessage();
+        } finally {
+            var now = clock.instant();
+            if (jobRepository.finish(id, runToken, status, message, now, status == EmployeeJob.Status.QUEUED ? null : now) == 0) {
+                log.warn("Job {} {} lost its lease, its status is left to the run that took it over", id, type);
+            }
+            if (meterRegistry != null) {
+                meterRegistry.counter("employee.jobs.finished", "type", String.valueOf(type), "status", status.name()).increment();
+            }
+            log.info("Job {} {} ended {}", id, type, status);
+        }
+    }
+
+    // running jobs notice this at their next chunk and go back to QUEUED, to be resumed after the restart
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        executor.shutdown();
+    }
+
+    int runningJobs() {
+        return running.get();
+    }
+
+    boolean isStopping() {
+        return stopping;
+    }
+}
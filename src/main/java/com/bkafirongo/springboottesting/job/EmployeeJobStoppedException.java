@@ -0,0 +1,17 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import lombok.Getter;
+
+// thrown between chunks when a job must not continue; the job ends in the given status,
+// unless the run lost its lease and the job stays with the run that took it over
+@Getter
+public class EmployeeJobStoppedException extends RuntimeException {
+
+    private final EmployeeJob.Status status;
+
+    public EmployeeJobStoppedException(EmployeeJob.Status status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
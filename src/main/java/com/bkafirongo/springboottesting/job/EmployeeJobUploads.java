@@ -0,0 +1,88 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJobUploadPart;
+import com.bkafirongo.springboottesting.repository.EmployeeJobUploadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Uploads of import jobs, stored in parts of {@code employee.jobs.upload-part-size} in the shared database.
+ * Neither storing nor reading holds more than one part in memory.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeJobUploads {
+
+    private final EmployeeJobUploadRepository uploadRepository;
+    private final EmployeeJobProperties properties;
+
+    // each part commits on its own; a failed upload removes what it stored
+    public String store(InputStream inputStream) throws IOException {
+        var uploadId = UUID.randomUUID().toString();
+        int partSize = (int) Math.min(properties.getUploadPartSize().toBytes(), EmployeeJobUploadPart.MAX_PART_SIZE);
+        try {
+            int part = 0;
+            byte[] data;
+            // at least one part, so an empty upload still exists
+            do {
+                data = inputStream.readNBytes(partSize);
+                uploadRepository.save(EmployeeJobUploadPart.builder()
+                        .uploadId(uploadId)
+                        .part(part++)
+                        .data(data)
+                        .build());
+            } while (data.length == partSize);
+        } catch (IOException | RuntimeException ex) {
+            delete(uploadId);
+            throw ex;
+        }
+        return uploadId;
+    }
+
+    public boolean exists(String uploadId) {
+        return uploadRepository.existsByUploadId(uploadId);
+    }
+
+    // parts are fetched as the stream reaches them
+    public InputStream open(String uploadId) {
+        return new SequenceInputStream(new Enumeration<>() {
+
+            private int part;
+            private Optional<byte[]> next;
+
+            @Override
+            public boolean hasMoreElements() {
+                if (next == null) {
+                    next = uploadRepository.findData(uploadId, part);
+                }
+                return next.isPresent();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (!hasMoreElements()) {
+                    throw new NoSuchElementException();
+                }
+                var data = next.get();
+                next = null;
+                part++;
+                return new ByteArrayInputStream(data);
+            }
+        });
+    }
+
+    public void delete(String uploadId) {
+        uploadRepository.deleteByUploadId(uploadId);
+    }
+}
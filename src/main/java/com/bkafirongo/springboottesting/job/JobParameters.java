@@ -0,0 +1,29 @@
+package com.bkafirongo.springboottesting.job;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+final class JobParameters {
+
+    // no LIKE wildcards or '@', the domain becomes part of an email pattern
+    private static final Pattern DOMAIN = Pattern.compile("[A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)+");
+
+    private JobParameters() {
+    }
+
+    static String required(Map<String, String> parameters, String name) {
+        var value = parameters == null ? null : parameters.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing job parameter : " + name);
+        }
+        return value;
+    }
+
+    static String domain(Map<String, String> parameters, String name) {
+        var value = required(parameters, name);
+        if (!DOMAIN.matcher(value).matches()) {
+            throw new IllegalArgumentException("Job parameter " + name + " is not a domain : " + value);
+        }
+        return value;
+    }
+}
@@ -2,6 +2,7 @@ package com.bkafirongo.springboottesting.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
 
 @Getter
 @Setter
@@ -9,8 +10,19 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        indexes = @Index(name = "idx_employees_first_name_last_name", columnList = "first_name, last_name"))
+// generators selected by employee.id.strategy, see META-INF/employee-id-*.xml
+// the pooled row is seeded past max(id) on startup, see EmployeePooledIdSeeder
+@TableGenerator(name = "employee-pooled", table = "id_generators", pkColumnName = "sequence_name",
+        valueColumnName = "next_val", pkColumnValue = "employees", initialValue = 1, allocationSize = Employee.POOLED_ALLOCATION_SIZE)
+@GenericGenerator(name = "employee-time-ordered", strategy = "com.bkafirongo.springboottesting.repository.TimeOrderedIdGenerator")
 public class Employee {
+
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_employees_email";
+    public static final int POOLED_ALLOCATION_SIZE = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -20,4 +32,8 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    // bumped on every write, exposed to clients as the ETag
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,22 @@
+package com.bkafirongo.springboottesting.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class EmployeeBulkResult {
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID
+    }
+
+    // position of the item in the submitted collection
+    private int index;
+    private String email;
+    private Long id;
+    private Status status;
+    private String message;
+}
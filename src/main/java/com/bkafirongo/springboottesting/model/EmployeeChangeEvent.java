@@ -0,0 +1,50 @@
+package com.bkafirongo.springboottesting.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A row of the transactional outbox: written in the same transaction as the employee change it describes.
+ * The id identifies the event; the sequence the relay assigns when publishing it is the offset consumers of
+ * {@code GET /api/employees/changes} resume from.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_outbox",
+        indexes = @Index(name = "idx_employee_outbox_published_at", columnList = "published_at"))
+public class EmployeeChangeEvent {
+
+    public enum Type {CREATED, UPDATED, DELETED}
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+    @Column(name = "employee_id", nullable = false)
+    private long employeeId;
+    // the state after the change, null for deletes
+    @Column(name = "first_name")
+    private String firstName;
+    @Column(name = "last_name")
+    private String lastName;
+    private String email;
+    // null for a delete that was not conditional on a version
+    private Long version;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @JsonIgnore
+    @Column(name = "published_at")
+    private Instant publishedAt;
+    // increases in publication order, which unlike the id is also the order events become visible in; null until published
+    @Column(name = "publish_sequence", unique = true)
+    private Long sequence;
+}
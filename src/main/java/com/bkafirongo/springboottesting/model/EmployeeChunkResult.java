@@ -0,0 +1,15 @@
+package com.bkafirongo.springboottesting.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EmployeeChunkResult {
+    // keyset checkpoint: the highest employee id the chunk looked at
+    private long lastId;
+    private int processed;
+    private int failed;
+    // fewer rows than requested were left
+    private boolean done;
+}
@@ -0,0 +1,23 @@
+package com.bkafirongo.springboottesting.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class EmployeeImportProgress {
+
+    // running totals over the rows read so far
+    private long processed;
+    private long created;
+    private long failed;
+    // rows of the last batch that were not created, indexed by their position in the upload
+    private List<EmployeeBulkResult> errors;
+    private boolean done;
+    // set when the upload could not be read any further
+    private String message;
+}
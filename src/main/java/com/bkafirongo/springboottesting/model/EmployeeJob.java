@@ -0,0 +1,64 @@
+package com.bkafirongo.springboottesting.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A bulk operation run in the background by the EmployeeJobRunner, one chunk per transaction.
+ * The checkpoint records how far the job got, so a cancelled, failed or interrupted job resumes from there.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_jobs",
+        indexes = @Index(name = "idx_employee_jobs_status", columnList = "status"))
+public class EmployeeJob {
+
+    public enum Type {EMAIL_DOMAIN_REWRITE, EMAIL_DOMAIN_DELETE, IMPORT}
+
+    public enum Status {QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED}
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, String> parameters;
+    // last employee id, or upload row count for imports, covered by a committed chunk
+    @Column(nullable = false)
+    private long checkpoint;
+    @Column(nullable = false)
+    private long processed;
+    @Column(nullable = false)
+    private long failed;
+    private String message;
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "started_at")
+    private Instant startedAt;
+    // doubles as the heartbeat of a running job, see EmployeeJobRepository#claim
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+    // token of the run holding the lease; progress and the final status of any other run are rejected
+    @JsonIgnore
+    @Column(name = "claimed_by", length = 36)
+    private String claimedBy;
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
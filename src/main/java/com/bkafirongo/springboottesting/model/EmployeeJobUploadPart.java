@@ -0,0 +1,33 @@
+package com.bkafirongo.springboottesting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A part of an upload waiting to be imported by an {@link EmployeeJob}. Uploads are kept in the database instead of
+ * on the disk of the instance that received them, so any instance can claim the job or resume it after a lost lease.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_job_upload_parts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_employee_job_upload_parts", columnNames = {"upload_id", "part"}))
+public class EmployeeJobUploadPart {
+
+    // the largest MEDIUMBLOB
+    public static final int MAX_PART_SIZE = 16 * 1024 * 1024 - 1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Column(name = "upload_id", nullable = false, length = 36)
+    private String uploadId;
+    // 0-based position within the upload
+    @Column(nullable = false)
+    private int part;
+    @Column(nullable = false, length = MAX_PART_SIZE)
+    private byte[] data;
+}
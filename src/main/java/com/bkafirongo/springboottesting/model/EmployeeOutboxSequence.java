@@ -0,0 +1,25 @@
+package com.bkafirongo.springboottesting.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * The last publish sequence the outbox relay handed out. Relays lock this row for the whole publishing transaction,
+ * so sequences become visible in the order they were assigned.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "employee_outbox_sequence")
+public class EmployeeOutboxSequence {
+
+    public static final String EMPLOYEE_OUTBOX = "employee_outbox";
+
+    @Id
+    @Column(length = 64)
+    private String name;
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+}
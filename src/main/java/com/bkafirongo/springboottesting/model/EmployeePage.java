@@ -0,0 +1,14 @@
+package com.bkafirongo.springboottesting.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class EmployeePage<T> {
+    private List<T> content;
+    // opaque cursor for the next page, null once the last page has been reached
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.bkafirongo.springboottesting.model;
+
+import org.springframework.http.MediaType;
+
+// wire formats of the streaming export and import, see EmployeeTransferService
+public enum EmployeeTransferFormat {
+
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    EmployeeTransferFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,17 @@
+package com.bkafirongo.springboottesting.model;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.util.Set;
+
+/**
+ * Read-only projection of {@link Employee} for listings and searches. It is built directly from the
+ * selected columns, so Hibernate neither manages it nor keeps a dirty-checking snapshot.
+ */
+@JsonFilter(EmployeeView.FIELDS_FILTER)
+public record EmployeeView(long id, String firstName, String lastName, String email) {
+
+    public static final String FIELDS_FILTER = "employeeViewFields";
+
+    public static final Set<String> FIELDS = Set.of("id", "firstName", "lastName", "email");
+}
@@ -0,0 +1,253 @@
+package com.bkafirongo.springboottesting.outbox;
+
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import com.bkafirongo.springboottesting.repository.EmployeeChangeEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Server-Sent Events fan-out of published {@link EmployeeChangeEvent}s. A subscriber first catches up from the
+ * outbox table past its offset (a publish sequence), then receives what this instance reads from the table as the
+ * {@link EmployeeOutboxRelay} of any instance publishes it.
+ * <p>
+ * Every instance follows the table with its own offset, so a subscriber sees all events no matter which instance
+ * relayed them. Sending happens on the stream's own bounded pool, one queue per subscriber. A send to a client that
+ * stopped reading blocks a stream thread until the container's write timeout ({@code server.tomcat.connection-timeout})
+ * fails it and the subscriber is closed, so slow clients can delay other subscribers by at most that long, and never
+ * the request handling or background work on the shared task executor.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class EmployeeChangeStream implements MeterBinder {
+
+    private final EmployeeChangeEventRepository changeEvents;
+    private final TaskExecutor taskExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${employee.outbox.batch-size:500}")
+    private int batchSize = 500;
+    @Value("${employee.outbox.stream-timeout:30m}")
+    private Duration streamTimeout = Duration.ofMinutes(30);
+    @Value("${employee.outbox.max-pending:10000}")
+    private int maxPending = 10000;
+
+    // the last publish sequence read from the table, null while nobody is subscribed
+    private Long offset;
+
+    @Autowired
+    public EmployeeChangeStream(EmployeeChangeEventRepository changeEvents,
+                                @Value("${employee.outbox.stream-threads:4}") int streamThreads,
+                                @Value("${employee.outbox.stream-queue-capacity:1000}") int streamQueueCapacity) {
+        this(changeEvents, streamExecutor(streamThreads, streamQueueCapacity));
+    }
+
+    EmployeeChangeStream(EmployeeChangeEventRepository changeEvents, TaskExecutor taskExecutor) {
+        this.changeEvents = changeEvents;
+        this.taskExecutor = taskExecutor;
+    }
+
+    // not a bean, so the auto-configured applicationTaskExecutor stays in place
+    private static ThreadPoolTaskExecutor streamExecutor(int threads, int queueCapacity) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("employee-changes-");
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (taskExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employee.outbox.subscribers", subscribers, Set::size).register(registry);
+    }
+
+    public SseEmitter subscribe(long afterSequence) {
+        var subscriber = new Subscriber(new SseEmitter(streamTimeout.toMillis()), afterSequence);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(ex -> subscribers.remove(subscriber));
+        // the offset is fixed before catching up, so the catch-up reads at least up to where polling continues;
+        // anything polled meanwhile is held back until the backlog is sent
+        synchronized (this) {
+            if (offset == null) {
+                offset = changeEvents.findLastSequence().orElse(0L);
+            }
+            subscribers.add(subscriber);
+        }
+        execute(subscriber, () -> catchUp(subscriber));
+        return subscriber.emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${employee.outbox.poll-interval:PT0.2S}")
+    public synchronized void poll() {
+        if (subscribers.isEmpty()) {
+            offset = null;
+            return;
+        }
+        List<EmployeeChangeEvent> page;
+        do {
+            page = changeEvents.findPublishedAfter(offset, PageRequest.ofSize(batchSize));
+            if (page.isEmpty()) {
+                return;
+            }
+            publish(page);
+            offset = page.get(page.size() - 1).getSequence();
+        } while (page.size() == batchSize);
+    }
+
+    void publish(List<EmployeeChangeEvent> events) {
+        for (var subscriber : subscribers) {
+            subscriber.offer(events);
+        }
+    }
+
+    private void catchUp(Subscriber subscriber) {
+        try {
+            List<EmployeeChangeEvent> page;
+            do {
+                page = changeEvents.findPublishedAfter(subscriber.lastSequence(), PageRequest.ofSize(batchSize));
+                subscriber.send(page);
+            } while (page.size() == batchSize && subscriber.isOpen());
+            subscriber.goLive();
+        } catch (RuntimeException ex) {
+            log.warn("Employee change stream catch-up failed", ex);
+            subscriber.close(ex);
+        }
+    }
+
+    private void execute(Subscriber subscriber, Runnable task) {
+        try {
+            taskExecutor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            subscriber.close(ex);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        // only written by the catch-up and then by one drain at a time
+        private volatile long lastSequence;
+        private final ArrayDeque<EmployeeChangeEvent> pending = new ArrayDeque<>();
+        private boolean live;
+        private boolean draining;
+        private boolean open = true;
+
+        Subscriber(SseEmitter emitter, long lastSequence) {
+            this.emitter = emitter;
+            this.lastSequence = lastSequence;
+        }
+
+        long lastSequence() {
+            return lastSequence;
+        }
+
+        synchronized boolean isOpen() {
+            return open;
+        }
+
+        // called by the polling thread, which only queues
+        synchronized void offer(List<EmployeeChangeEvent> events) {
+            if (!open) {
+                return;
+            }
+            pending.addAll(events);
+            if (pending.size() > maxPending) {
+                // the client reconnects with its Last-Event-ID and catches up from the table instead
+                log.info("Closing an employee change stream {} events behind", pending.size());
+                close(new IllegalStateException("Subscriber is more than " + maxPending + " events behind"));
+                return;
+            }
+            drainLater();
+        }
+
+        synchronized void goLive() {
+            live = true;
+            drainLater();
+        }
+
+        private void drainLater() {
+            if (live && !draining && !pending.isEmpty()) {
+                draining = true;
+                execute(this, this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<EmployeeChangeEvent> events;
+                synchronized (this) {
+                    if (pending.isEmpty() || !open) {
+                        draining = false;
+                        return;
+                    }
+                    events = new ArrayList<>(pending);
+                    pending.clear();
+                }
+                send(events);
+            }
+        }
+
+        // sequences at or below the offset were already sent by the catch-up
+        void send(List<EmployeeChangeEvent> events) {
+            if (!isOpen()) {
+                return;
+            }
+            try {
+                for (var event : events) {
+                    if (event.getSequence() > lastSequence) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getSequence()))
+                                .name(event.getType().name())
+                                .data(event, MediaType.APPLICATION_JSON));
+                        lastSequence = event.getSequence();
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // client went away
+                close(ex);
+            }
+        }
+
+        synchronized void close(Throwable cause) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            pending.clear();
+            subscribers.remove(this);
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.bkafirongo.springboottesting.outbox;
+
+import com.bkafirongo.springboottesting.model.EmployeeOutboxSequence;
+import com.bkafirongo.springboottesting.repository.EmployeeChangeEventRepository;
+import com.bkafirongo.springboottesting.repository.EmployeeOutboxSequenceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Publishes committed outbox rows in batches by giving each a publish sequence, which hands them to the
+ * {@link EmployeeChangeStream} of every instance. Several instances may relay at once: they take turns on the locked
+ * {@link EmployeeOutboxSequence} row, so a row is only published once and sequences never become visible out of order.
+ * An event whose transaction commits late simply gets a later sequence.
+ * Delivery is at least once: consumers should treat the event id as an idempotency key.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class EmployeeOutboxRelay implements MeterBinder {
+
+    private final EmployeeChangeEventRepository changeEvents;
+    private final EmployeeOutboxSequenceRepository sequences;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${employee.outbox.batch-size:500}")
+    private int batchSize = 500;
+    @Value("${employee.outbox.retention:7d}")
+    private Duration retention = Duration.ofDays(7);
+
+    private Clock clock = Clock.systemUTC();
+    private Counter published;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        published = Counter.builder("employee.outbox.published").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.outbox.poll-interval:PT0.2S}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    // returns the number of events published
+    synchronized int relayBatch() {
+        var now = clock.instant();
+        int relayed = transactionTemplate.execute(status -> {
+            // locked before reading the pending rows, so they are read after the previous holder committed
+            var sequence = lockSequence();
+            var pending = changeEvents.findUnpublished(PageRequest.ofSize(batchSize));
+            long next = sequence.getLastSequence();
+            for (var event : pending) {
+                event.setSequence(++next);
+                event.setPublishedAt(now);
+            }
+            sequence.setLastSequence(next);
+            return pending.size();
+        });
+        if (relayed > 0 && published != null) {
+            published.increment(relayed);
+        }
+        return relayed;
+    }
+
+    // the first relay starts past every existing id, so offsets handed out before sequences existed stay valid
+    private EmployeeOutboxSequence lockSequence() {
+        return sequences.findForUpdate(EmployeeOutboxSequence.EMPLOYEE_OUTBOX)
+                .orElseGet(() -> sequences.saveAndFlush(new EmployeeOutboxSequence(EmployeeOutboxSequence.EMPLOYEE_OUTBOX,
+                        changeEvents.findLastId().orElse(0L))));
+    }
+
+    @Scheduled(fixedDelayString = "${employee.outbox.purge-interval:PT1H}")
+    public void purge() {
+        int deleted = changeEvents.deletePublishedBefore(clock.instant().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} published employee change events", deleted);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Additive increase, multiplicative decrease limit on requests in flight. While responses stay under the latency
+ * threshold and the limit is being used, it grows by one per response; a slower response, which on this API means
+ * the database is falling behind, shrinks it by the backoff ratio at most once per threshold period. Requests over
+ * the limit are rejected instead of queueing for a connection.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final RateLimitProperties.Concurrency properties;
+    private final long thresholdNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private long lastDecrease;
+    private MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyLimiter(RateLimitProperties.Concurrency properties, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.thresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.nanoTime = nanoTime;
+        this.limit = properties.getInitialLimit();
+        this.lastDecrease = nanoTime.getAsLong() - thresholdNanos;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        Gauge.builder("employee.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(registry);
+        Gauge.builder("employee.concurrency.in-flight", inFlight, AtomicInteger::get).register(registry);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                if (meterRegistry != null) {
+                    meterRegistry.counter("employee.concurrency.rejected").increment();
+                }
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // for a request whose duration says nothing about the database, such as a streaming export or an upload
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (latencyNanos > thresholdNanos) {
+                long now = nanoTime.getAsLong();
+                // one decrease per period, so a burst of slow responses does not collapse the limit
+                if (now - lastDecrease >= thresholdNanos) {
+                    limit = Math.max(properties.getMinLimit(), (int) (limit * properties.getBackoffRatio()));
+                    lastDecrease = now;
+                }
+            } else if (current * 2 >= limit) {
+                // only grow while at least half the limit is used, an idle node has learned nothing
+                limit = Math.min(properties.getMaxLimit(), limit + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
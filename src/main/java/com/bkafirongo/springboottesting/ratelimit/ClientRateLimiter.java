@@ -0,0 +1,55 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.LongSupplier;
+
+/**
+ * One {@link TokenBucket} per client and endpoint. Idle buckets are dropped, so a client that comes back
+ * after the idle timeout starts with a full bucket.
+ */
+public class ClientRateLimiter implements MeterBinder {
+
+    private final RateLimitProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier nanoTime;
+    private MeterRegistry meterRegistry;
+
+    public ClientRateLimiter(RateLimitProperties properties, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        Gauge.builder("employee.ratelimit.buckets", buckets, Cache::estimatedSize).register(registry);
+    }
+
+    // 0 when the request may proceed, otherwise nanoseconds until the client's next permit
+    public long tryAcquire(String client, String endpoint) {
+        long now = nanoTime.getAsLong();
+        var bucket = buckets.get(client + ' ' + endpoint, key -> {
+            var limits = properties.bucket(endpoint);
+            return new TokenBucket(limits.getRequestsPerSecond(), limits.getBurst(), now);
+        });
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0 && meterRegistry != null) {
+            meterRegistry.counter("employee.ratelimit.rejected", "endpoint", endpoint).increment();
+        }
+        return wait;
+    }
+
+    public long availablePermits(String client, String endpoint) {
+        var bucket = buckets.getIfPresent(client + ' ' + endpoint);
+        return bucket == null ? properties.bucket(endpoint).getBurst() : bucket.availablePermits(nanoTime.getAsLong());
+    }
+}
@@ -0,0 +1,44 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts per-client token buckets and the adaptive concurrency limit in front of the employee API.
+ * The change stream is left out, its connections are long-lived by design.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties properties;
+
+    public RateLimitConfig(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    ClientRateLimiter clientRateLimiter() {
+        return new ClientRateLimiter(properties, System::nanoTime);
+    }
+
+    @Bean
+    AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter(properties.getConcurrency(), System::nanoTime);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        var concurrencyLimiter = properties.getConcurrency().isEnabled() ? adaptiveConcurrencyLimiter() : null;
+        registry.addInterceptor(new RateLimitInterceptor(properties, clientRateLimiter(), concurrencyLimiter))
+                .addPathPatterns("/api/employees", "/api/employees/**")
+                .excludePathPatterns("/api/employees/changes");
+    }
+}
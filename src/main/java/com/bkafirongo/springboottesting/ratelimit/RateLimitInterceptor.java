@@ -0,0 +1,159 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rejects a request with 429 when its client is over the endpoint's rate, and with 503 when the node is over its
+ * adaptive concurrency limit. Streaming exports and imports hold their concurrency permit until the async request
+ * completes, but neither they nor uploads read from the request body teach the limit anything: their duration follows
+ * the data size and the client's speed, not the database's.
+ * <p>
+ * Clients are keyed by remote address. The client header is only believed on requests from a configured trusted
+ * proxy, anyone else could pick a fresh id per request.
+ */
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".permit";
+
+    private final RateLimitProperties properties;
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public RateLimitInterceptor(RateLimitProperties properties, ClientRateLimiter rateLimiter,
+                                AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // async dispatches of a streaming response were let through already
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        long wait = rateLimiter.tryAcquire(client(request), handlerMethod.getMethod().getName());
+        if (wait > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Rate limit exceeded, retry in " + retryAfter + "s");
+            return false;
+        }
+        if (concurrencyLimiter != null) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is overloaded, retry later");
+                return false;
+            }
+            request.setAttribute(PERMIT_ATTRIBUTE, new Permit(System.nanoTime(), !readsBodyStream(handlerMethod)));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit started)) {
+            return;
+        }
+        var permit = started.unsampled();
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        // the async dispatch normally releases it in afterCompletion, the listener covers a client that went away
+        request.getAsyncContext().addListener(new AsyncListener() {
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                release(permit);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                release(permit);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                release(permit);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            release(permit);
+        }
+    }
+
+    private void release(Permit permit) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        if (permit.sampled) {
+            concurrencyLimiter.release(System.nanoTime() - permit.started);
+        } else {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private static boolean readsBodyStream(HandlerMethod handlerMethod) {
+        for (var parameter : handlerMethod.getMethodParameters()) {
+            var type = parameter.getParameterType();
+            if (InputStream.class.isAssignableFrom(type) || Reader.class.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String client(HttpServletRequest request) {
+        var remoteAddress = request.getRemoteAddr();
+        if (!properties.getTrustedProxies().contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        var client = request.getHeader(properties.getClientHeader());
+        return client == null || client.isBlank() ? remoteAddress : client;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    // released once, by whichever of the async listener and afterCompletion comes first
+    private record Permit(long started, boolean sampled, AtomicBoolean released) {
+
+        Permit(long started, boolean sampled) {
+            this(started, sampled, new AtomicBoolean());
+        }
+
+        Permit unsampled() {
+            return new Permit(started, false, released);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // clients are told apart by remote address, or by this header on requests from one of the trusted proxies
+    private String clientHeader = "X-Client-Id";
+    private Set<String> trustedProxies = new HashSet<>();
+    private Bucket defaults = new Bucket();
+    // keyed by controller method name, e.g. getAllEmployees
+    private Map<String, Bucket> endpoints = new HashMap<>();
+    private long maxClients = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Concurrency concurrency = new Concurrency();
+
+    public Bucket bucket(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        private double requestsPerSecond = 50;
+        private int burst = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        // a response slower than this counts as overload and shrinks the limit
+        private Duration latencyThreshold = Duration.ofMillis(250);
+        private double backoffRatio = 0.9;
+    }
+}
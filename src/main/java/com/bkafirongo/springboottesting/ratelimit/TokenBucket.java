@@ -0,0 +1,45 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the generic cell rate algorithm):
+ * each permit pushes it one refill interval into the future, and a request is rejected when that would put it
+ * more than a full bucket ahead of now. One compare-and-set per request, no refill thread.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and burst");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        // starts full
+        this.arrival = new AtomicLong(nowNanos);
+    }
+
+    // 0 when a permit was taken, otherwise how long until the next one is available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long availablePermits(long nowNanos) {
+        long used = Math.max(0, arrival.get() - nowNanos);
+        return (burstNanos - used) / intervalNanos;
+    }
+}
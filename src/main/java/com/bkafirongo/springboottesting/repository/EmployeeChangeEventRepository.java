@@ -0,0 +1,35 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface EmployeeChangeEventRepository extends JpaRepository<EmployeeChangeEvent, Long>, EmployeeChangeEventRepositoryCustom {
+
+    @Query(value = "select e from EmployeeChangeEvent e where e.publishedAt is null order by e.id")
+    List<EmployeeChangeEvent> findUnpublished(Pageable pageable);
+
+    @Query(value = "select max(e.sequence) from EmployeeChangeEvent e")
+    Optional<Long> findLastSequence();
+
+    @Query(value = "select max(e.id) from EmployeeChangeEvent e")
+    Optional<Long> findLastId();
+
+    //    read-write on purpose: a lagging read replica could otherwise hide events a subscriber is catching up on
+    @Transactional
+    @Query(value = "select e from EmployeeChangeEvent e where e.sequence > :afterSequence order by e.sequence")
+    List<EmployeeChangeEvent> findPublishedAfter(@Param("afterSequence") long afterSequence, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from EmployeeChangeEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,15 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+
+import java.util.List;
+
+public interface EmployeeChangeEventRepositoryCustom {
+
+    void append(EmployeeChangeEvent.Type type, Employee employee);
+
+    void appendAll(EmployeeChangeEvent.Type type, List<Employee> employees);
+
+    void appendDeleted(long employeeId, Long version);
+}
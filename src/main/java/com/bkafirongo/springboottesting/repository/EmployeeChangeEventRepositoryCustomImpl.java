@@ -0,0 +1,53 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EmployeeChangeEventRepositoryCustomImpl implements EmployeeChangeEventRepositoryCustom {
+
+    private static final String INSERT_SQL = "insert into employee_outbox " +
+            "(type, employee_id, first_name, last_name, email, version, created_at) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // plain JDBC joins the caller's transaction without flushing or growing its persistence context
+    @Override
+    @Transactional
+    public void append(EmployeeChangeEvent.Type type, Employee employee) {
+        appendAll(type, List.of(employee));
+    }
+
+    @Override
+    @Transactional
+    public void appendAll(EmployeeChangeEvent.Type type, List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        var createdAt = Timestamp.from(Instant.now());
+        boolean deleted = type == EmployeeChangeEvent.Type.DELETED;
+        jdbcTemplate.batchUpdate(INSERT_SQL, employees, employees.size(), (ps, employee) -> {
+            ps.setString(1, type.name());
+            ps.setLong(2, employee.getId());
+            ps.setString(3, deleted ? null : employee.getFirstName());
+            ps.setString(4, deleted ? null : employee.getLastName());
+            ps.setString(5, deleted ? null : employee.getEmail());
+            ps.setLong(6, employee.getVersion());
+            ps.setTimestamp(7, createdAt);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void appendDeleted(long employeeId, Long version) {
+        jdbcTemplate.update(INSERT_SQL, EmployeeChangeEvent.Type.DELETED.name(), employeeId, null, null, null, version,
+                Timestamp.from(Instant.now()));
+    }
+}
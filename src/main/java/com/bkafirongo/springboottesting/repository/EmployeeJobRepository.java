@@ -0,0 +1,72 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+//    job state changes are single conditional statements, so the runner and the API never overwrite each other
+public interface EmployeeJobRepository extends JpaRepository<EmployeeJob, Long> {
+
+    //    enum literals in JPQL must be fully qualified
+    String STATUS = "com.bkafirongo.springboottesting.model.EmployeeJob$Status";
+
+    //    queued jobs, and running jobs whose runner stopped sending heartbeats
+    @Transactional
+    @Query(value = "select j.id from EmployeeJob j where j.status = " + STATUS + ".QUEUED " +
+            "or (j.status = " + STATUS + ".RUNNING and j.updatedAt < :staleBefore) order by j.id")
+    List<Long> findClaimable(@Param("staleBefore") Instant staleBefore, Pageable pageable);
+
+    //    the run token identifies this run from now on: a runner whose lease was taken over can no longer write
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeJob j set j.status = " + STATUS + ".RUNNING, j.claimedBy = :runToken, j.updatedAt = :now, " +
+            "j.startedAt = coalesce(j.startedAt, :now) where j.id = :id " +
+            "and (j.status = " + STATUS + ".QUEUED or (j.status = " + STATUS + ".RUNNING and j.updatedAt < :staleBefore))")
+    int claim(@Param("id") long id, @Param("runToken") String runToken, @Param("now") Instant now,
+              @Param("staleBefore") Instant staleBefore);
+
+    //    0 when the lease was lost
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeJob j set j.checkpoint = :checkpoint, j.processed = j.processed + :processed, " +
+            "j.failed = j.failed + :failed, j.updatedAt = :now " +
+            "where j.id = :id and j.status = " + STATUS + ".RUNNING and j.claimedBy = :runToken")
+    int recordProgress(@Param("id") long id, @Param("runToken") String runToken, @Param("checkpoint") long checkpoint,
+                       @Param("processed") long processed, @Param("failed") long failed, @Param("now") Instant now);
+
+    //    read-write so a lagging replica cannot hide a cancellation
+    @Transactional
+    @Query(value = "select j.cancelRequested from EmployeeJob j where j.id = :id")
+    boolean isCancelRequested(@Param("id") long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeJob j set j.status = :status, j.message = :message, j.updatedAt = :now, " +
+            "j.finishedAt = :finishedAt where j.id = :id and j.status = " + STATUS + ".RUNNING and j.claimedBy = :runToken")
+    int finish(@Param("id") long id, @Param("runToken") String runToken, @Param("status") EmployeeJob.Status status,
+               @Param("message") String message, @Param("now") Instant now, @Param("finishedAt") Instant finishedAt);
+
+    //    a queued job is cancelled right away, a running one stops at its next chunk boundary
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeJob j set j.status = case when j.status = " + STATUS + ".QUEUED then " + STATUS + ".CANCELLED " +
+            "else j.status end, j.cancelRequested = true, j.updatedAt = :now " +
+            "where j.id = :id and j.status in (" + STATUS + ".QUEUED, " + STATUS + ".RUNNING)")
+    int requestCancel(@Param("id") long id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeJob j set j.status = " + STATUS + ".QUEUED, j.cancelRequested = false, j.message = null, " +
+            "j.finishedAt = null, j.updatedAt = :now where j.id = :id and j.status in (" + STATUS + ".CANCELLED, " + STATUS + ".FAILED)")
+    int resume(@Param("id") long id, @Param("now") Instant now);
+
+    @Query(value = "select j from EmployeeJob j order by j.id desc")
+    List<EmployeeJob> findRecent(Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.EmployeeJobUploadPart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface EmployeeJobUploadRepository extends JpaRepository<EmployeeJobUploadPart, Long> {
+
+    //    read-write so an upload stored a moment ago on the primary is found even with lagging replicas
+    @Transactional
+    @Query(value = "select p.data from EmployeeJobUploadPart p where p.uploadId = :uploadId and p.part = :part")
+    Optional<byte[]> findData(@Param("uploadId") String uploadId, @Param("part") int part);
+
+    @Transactional
+    boolean existsByUploadId(String uploadId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from EmployeeJobUploadPart p where p.uploadId = :uploadId")
+    int deleteByUploadId(@Param("uploadId") String uploadId);
+}
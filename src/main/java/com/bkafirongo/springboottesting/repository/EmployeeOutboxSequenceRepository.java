@@ -0,0 +1,18 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.EmployeeOutboxSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface EmployeeOutboxSequenceRepository extends JpaRepository<EmployeeOutboxSequence, String> {
+
+    //    held until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select s from EmployeeOutboxSequence s where s.name = :name")
+    Optional<EmployeeOutboxSequence> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,55 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the pooled id block of {@link Employee} past the highest existing id before the application reports ready.
+ * A database switched over from the identity strategy already has rows, and a fresh {@code id_generators} row would
+ * hand out their ids again. Both statements only ever raise the value, so instances starting together are safe.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "employee.id.strategy", havingValue = "pooled")
+@RequiredArgsConstructor
+public class EmployeePooledIdSeeder implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        seed();
+    }
+
+    public long seed() {
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from employees", Long.class);
+        // the pooled optimizer hands out the block ending at the value it reads, so the next block starts after maxId;
+        // whether the table holds the last or the next value only moves that start by one
+        long nextValue = maxId + Employee.POOLED_ALLOCATION_SIZE;
+        if (jdbcTemplate.queryForObject("select count(*) from id_generators where sequence_name = 'employees'", Long.class) == 0) {
+            try {
+                jdbcTemplate.update("insert into id_generators (sequence_name, next_val) values ('employees', 1)");
+            } catch (DuplicateKeyException ex) {
+                // another instance inserted it first
+            }
+        }
+        int raised = jdbcTemplate.update("update id_generators set next_val = ? where sequence_name = 'employees' and next_val < ?",
+                nextValue, nextValue);
+        if (raised > 0 && maxId > 0) {
+            log.info("Seeded employee id block past existing id {}", maxId);
+        }
+        return maxId;
+    }
+}
@@ -1,16 +1,33 @@
 package com.bkafirongo.springboottesting.repository;
 
 import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
 
     Optional<Employee> findByEmail(String email);
 
+    //    the current row, locked until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select e from Employee e where e.id = :id")
+    Optional<Employee> findByIdForUpdate(@Param("id") long id);
+
+    @Query(value = "select e.email from Employee e where e.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     //    define custom query using JPQL with index parameters
     @Query(value = "select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByJPQL(String firstName, String lastName);
@@ -24,4 +41,51 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     @Query(value = "select * from employees e where e.first_name = :firstName and e.last_name = :lastName", nativeQuery = true)
     Employee findByNativeSQLNamed(@Param("firstName") String f, @Param("lastName") String l);
+
+    //    keyset pagination: seek past the last id seen instead of using an offset
+    @Query(value = "select e from Employee e where e.id > :afterId order by e.id")
+    List<Employee> findNextPage(@Param("afterId") long afterId, Pageable pageable);
+
+    //    keyset chunk of the employees whose email ends with the given suffix, used by bulk jobs
+    @Query(value = "select e from Employee e where e.id > :afterId and e.email like :emailPattern order by e.id")
+    List<Employee> findNextPageByEmailLike(@Param("afterId") long afterId, @Param("emailPattern") String emailPattern,
+                                           Pageable pageable);
+
+    //    DTO projections: only the needed columns are read and nothing is added to the persistence context
+    @Query(value = "select new com.bkafirongo.springboottesting.model.EmployeeView(e.id, e.firstName, e.lastName, e.email) " +
+            "from Employee e where e.id > :afterId order by e.id")
+    List<EmployeeView> findNextViewPage(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(value = "select new com.bkafirongo.springboottesting.model.EmployeeView(e.id, e.firstName, e.lastName, e.email) " +
+            "from Employee e where e.firstName = :firstName and e.lastName = :lastName order by e.id")
+    List<EmployeeView> findViewsByName(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    //    single statement writes: the affected row count tells whether the employee existed
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update Employee e set e.firstName = :firstName, e.lastName = :lastName, e.email = :email, " +
+            "e.version = e.version + 1 where e.id = :id")
+    int updateById(@Param("id") long id, @Param("firstName") String firstName,
+                   @Param("lastName") String lastName, @Param("email") String email);
+
+    //    optimistic variants: no row is touched unless the version still matches
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update Employee e set e.firstName = :firstName, e.lastName = :lastName, e.email = :email, " +
+            "e.version = e.version + 1 where e.id = :id and e.version = :version")
+    int updateByIdAndVersion(@Param("id") long id, @Param("version") long version, @Param("firstName") String firstName,
+                             @Param("lastName") String lastName, @Param("email") String email);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from Employee e where e.id = :id")
+    int deleteEmployeeById(@Param("id") long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from Employee e where e.id = :id and e.version = :version")
+    int deleteEmployeeByIdAndVersion(@Param("id") long id, @Param("version") long version);
+
+    @Query(value = "select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
 }
@@ -0,0 +1,26 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.Employee;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public interface EmployeeRepositoryCustom {
+
+    //    insert all employees with a single JDBC batch and assign the generated ids back onto them
+    List<Employee> batchInsert(List<Employee> employees);
+
+    //    update only the given properties (firstName, lastName, email) if the row still has the given version,
+    //    returning the affected row count
+    int patchById(long id, long version, Map<String, String> changes);
+
+    //    read every employee in id order from a forward-only result set, handing each row to the consumer
+    //    before the next is fetched
+    void exportAll(Consumer<Employee> consumer);
+
+    //    every employee in id order as read-only entities, fetched with the export fetch size; the caller closes the
+    //    stream within its transaction
+    Stream<Employee> streamAll();
+}
@@ -0,0 +1,152 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PostInsertIdentifierGenerator;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    private static final String INSERT_SQL = "insert into employees (first_name, last_name, email, version) values (?, ?, ?, 0)";
+    private static final String INSERT_WITH_ID_SQL = "insert into employees (id, first_name, last_name, email, version) values (?, ?, ?, ?, 0)";
+
+    private static final String EXPORT_SQL = "select id, first_name, last_name, email, version from employees order by id";
+    private static final String STREAM_ALL_JPQL = "select e from Employee e order by e.id";
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result set;
+    // other drivers, H2 among them, reject it
+    @Value("${employee.export.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int exportFetchSize = Integer.MIN_VALUE;
+
+    @Override
+    @Transactional
+    public List<Employee> batchInsert(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return employees;
+        }
+        var generator = identifierGenerator();
+        if (generator != null) {
+            return insertWithIds(employees, generator);
+        }
+        // with rewriteBatchedStatements=true Connector/J sends the whole batch as one multi-row insert
+        return jdbcTemplate.execute((ConnectionCallback<List<Employee>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (var employee : employees) {
+                    ps.setString(1, employee.getFirstName());
+                    ps.setString(2, employee.getLastName());
+                    ps.setString(3, employee.getEmail());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (var keys = ps.getGeneratedKeys()) {
+                    for (var employee : employees) {
+                        if (!keys.next()) {
+                            break;
+                        }
+                        employee.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return employees;
+        });
+    }
+
+    // ids come from the same generator Hibernate uses for Employee, so both write paths share one id space
+    private List<Employee> insertWithIds(List<Employee> employees, IdentifierGenerator generator) {
+        var session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        for (var employee : employees) {
+            employee.setId(((Number) generator.generate(session, employee)).longValue());
+        }
+        jdbcTemplate.batchUpdate(INSERT_WITH_ID_SQL, employees, employees.size(), (ps, employee) -> {
+            ps.setLong(1, employee.getId());
+            ps.setString(2, employee.getFirstName());
+            ps.setString(3, employee.getLastName());
+            ps.setString(4, employee.getEmail());
+        });
+        return employees;
+    }
+
+    // null when the database assigns the id on insert
+    private IdentifierGenerator identifierGenerator() {
+        var generator = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getRuntimeMetamodels().getMappingMetamodel()
+                .getEntityDescriptor(Employee.class)
+                .getIdentifierGenerator();
+        return generator instanceof PostInsertIdentifierGenerator ? null : generator;
+    }
+
+    @Override
+    @Transactional
+    public int patchById(long id, long version, Map<String, String> changes) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        // the statement names only the changed columns, the values stay bind parameters
+        var sql = new StringBuilder("update employees set ");
+        var args = new ArrayList<Object>(changes.size() + 2);
+        for (var change : changes.entrySet()) {
+            var column = COLUMNS.get(change.getKey());
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown field : " + change.getKey());
+            }
+            sql.append(column).append(" = ?, ");
+            args.add(change.getValue());
+        }
+        sql.append("version = version + 1 where id = ? and version = ?");
+        args.add(id);
+        args.add(version);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Employee> consumer) {
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportFetchSize);
+            return ps;
+        }, rs -> {
+            consumer.accept(Employee.builder()
+                    .id(rs.getLong(1))
+                    .firstName(rs.getString(2))
+                    .lastName(rs.getString(3))
+                    .email(rs.getString(4))
+                    .version(rs.getLong(5))
+                    .build());
+        });
+    }
+
+    @Override
+    public Stream<Employee> streamAll() {
+        return entityManager.createQuery(STREAM_ALL_JPQL, Employee.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
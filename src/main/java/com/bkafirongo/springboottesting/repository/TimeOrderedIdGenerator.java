@@ -0,0 +1,96 @@
+package com.bkafirongo.springboottesting.repository;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.time.Instant;
+import java.util.Properties;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered 64-bit ids in-process: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id
+ * and a 12 bit per-millisecond sequence. Ids are known before the insert, so Hibernate can batch the statements,
+ * and they keep increasing, so rows are still appended to the end of the InnoDB clustered index.
+ * <p>
+ * The node id is read from the {@value #NODE_SETTING} setting and must be unique per running instance. It has no
+ * default: two instances both falling back to the same node would hand out the same ids, so startup fails instead.
+ * <p>
+ * Ids pass 2<sup>53</sup> about 25 days after the epoch, so JavaScript clients parsing the JSON {@code id} as a
+ * number lose precision. They have to read it as a string or BigInt, for example with {@code JSON.parse} and a
+ * reviver over the source text, or stay on the identity or pooled strategy.
+ */
+public class TimeOrderedIdGenerator implements IdentifierGenerator {
+
+    public static final String NODE_SETTING = "employee.id.node";
+
+    static final long EPOCH = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final LongSupplier clock;
+    private long node;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis, 0);
+    }
+
+    TimeOrderedIdGenerator(LongSupplier clock, long node) {
+        this.clock = clock;
+        this.node = checkNode(node);
+    }
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        var configuration = serviceRegistry.getService(ConfigurationService.class);
+        node = checkNode(parseNode(configuration.getSettings().get(NODE_SETTING)));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextId();
+    }
+
+    public synchronized long nextId() {
+        // never step back in time, a clock adjustment just keeps using the last timestamp
+        long timestamp = Math.max(clock.getAsLong(), lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // sequence exhausted for this millisecond, wait for the next one
+                while (timestamp <= lastTimestamp) {
+                    Thread.onSpinWait();
+                    timestamp = clock.getAsLong();
+                }
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    static long parseNode(Object value) {
+        if (value == null || value.toString().isBlank()) {
+            throw new IllegalArgumentException(NODE_SETTING + " must be set to a node id unique to this instance");
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(NODE_SETTING + " must be a number : " + value, ex);
+        }
+    }
+
+    private static long checkNode(long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException(NODE_SETTING + " must be between 0 and " + MAX_NODE + " : " + node);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,197 @@
+package com.bkafirongo.springboottesting.search;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index for type-ahead search over first name, last name and email.
+ * <p>
+ * Terms are kept in a sorted map, so all terms starting with a prefix form one contiguous range. Every query word
+ * must prefix some term of a match, so a lookup only walks the range of its rarest word: a logarithmic seek per word
+ * plus at most the postings of that word, whatever the number of employees. Reads are lock free; writes are
+ * serialized because one employee touches several postings.
+ */
+@Component
+public class EmployeeSearchIndex implements MeterBinder {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private record Document(EmployeeView view, String[] terms) {
+    }
+
+    private final NavigableMap<String, NavigableSet<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    // ids removed while a load streams the table, so the load does not bring back rows deleted behind its snapshot
+    private Set<Long> tombstones;
+
+    public void index(Employee employee) {
+        index(new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail()));
+    }
+
+    public synchronized void index(EmployeeView employee) {
+        unindex(employee.id());
+        var terms = terms(employee.firstName() + " " + employee.lastName() + " " + employee.email());
+        documents.put(employee.id(), new Document(employee, terms));
+        for (var term : terms) {
+            postings.computeIfAbsent(term, t -> new ConcurrentSkipListSet<>()).add(employee.id());
+        }
+    }
+
+    // used while loading at startup: a concurrent write or delete is newer than the loaded row
+    public synchronized void indexIfAbsent(EmployeeView employee) {
+        if (!documents.containsKey(employee.id()) && (tombstones == null || !tombstones.contains(employee.id()))) {
+            index(employee);
+        }
+    }
+
+    public synchronized void startLoad() {
+        tombstones = new HashSet<>();
+    }
+
+    public synchronized void finishLoad() {
+        tombstones = null;
+    }
+
+    public synchronized void remove(long id) {
+        if (tombstones != null) {
+            tombstones.add(id);
+        }
+        unindex(id);
+    }
+
+    private void unindex(long id) {
+        var document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (var term : document.terms()) {
+            var ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public List<EmployeeView> search(String query, int limit) {
+        var words = terms(query);
+        if (words.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        // the other words are checked against each candidate of the rarest one
+        var driver = rarest(words);
+        var seen = new HashSet<Long>();
+        var results = new ArrayList<EmployeeView>(Math.min(limit, 64));
+        for (var ids : range(driver).values()) {
+            for (var id : ids) {
+                var document = documents.get(id);
+                if (document != null && matchesAll(document, words) && seen.add(id)) {
+                    results.add(document.view());
+                    if (results.size() == limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employee.search.documents", documents, Map::size)
+                .description("Employees in the search index")
+                .register(registry);
+        Gauge.builder("employee.search.terms", postings, Map::size)
+                .description("Distinct terms in the search index")
+                .register(registry);
+    }
+
+    // the word whose prefix range holds the fewest ids; counting stops at the best so far, so a common word costs no
+    // more than the rarest one, and longer words are tried first because they usually select fewer ids
+    String rarest(String[] words) {
+        var byLength = words.clone();
+        Arrays.sort(byLength, Comparator.comparingInt(String::length).reversed());
+        var rarest = byLength[0];
+        long fewest = Long.MAX_VALUE;
+        for (var word : byLength) {
+            long count = countIds(word, fewest);
+            if (count < fewest) {
+                rarest = word;
+                fewest = count;
+                if (fewest == 0) {
+                    break;
+                }
+            }
+        }
+        return rarest;
+    }
+
+    // ids in the prefix range of the word, counted up to the limit
+    private long countIds(String word, long limit) {
+        long count = 0;
+        for (var ids : range(word).values()) {
+            for (var iterator = ids.iterator(); iterator.hasNext() && count < limit; iterator.next()) {
+                count++;
+            }
+            if (count >= limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    private NavigableMap<String, NavigableSet<Long>> range(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static boolean matchesAll(Document document, String[] words) {
+        for (var word : words) {
+            boolean found = false;
+            for (var term : document.terms()) {
+                if (term.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String[] terms(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return SEPARATORS.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bkafirongo.springboottesting.search;
+
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import com.bkafirongo.springboottesting.repository.EmployeeChangeEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Applies the published change events of every instance to this instance's {@link EmployeeSearchIndex}, so writes
+ * through another instance show up in searches here about one poll interval later. Writes through this instance are
+ * already indexed at commit; their events only index the same state again.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeSearchIndexFeed {
+
+    private final EmployeeChangeEventRepository changeEvents;
+    private final EmployeeSearchIndex searchIndex;
+
+    @Value("${employee.outbox.batch-size:500}")
+    private int batchSize = 500;
+
+    // the last publish sequence applied, null until started
+    private Long offset;
+
+    public synchronized void start() {
+        if (offset == null) {
+            offset = changeEvents.findLastSequence().orElse(0L);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${employee.outbox.poll-interval:PT0.2S}")
+    public synchronized void poll() {
+        start();
+        List<EmployeeChangeEvent> page;
+        do {
+            page = changeEvents.findPublishedAfter(offset, PageRequest.ofSize(batchSize));
+            if (page.isEmpty()) {
+                return;
+            }
+            page.forEach(this::apply);
+            offset = page.get(page.size() - 1).getSequence();
+        } while (page.size() == batchSize);
+    }
+
+    private void apply(EmployeeChangeEvent event) {
+        if (event.getType() == EmployeeChangeEvent.Type.DELETED) {
+            searchIndex.remove(event.getEmployeeId());
+        } else {
+            searchIndex.index(new EmployeeView(event.getEmployeeId(), event.getFirstName(), event.getLastName(), event.getEmail()));
+        }
+    }
+}
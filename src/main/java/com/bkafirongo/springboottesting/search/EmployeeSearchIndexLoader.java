@@ -0,0 +1,74 @@
+package com.bkafirongo.springboottesting.search;
+
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the {@link EmployeeSearchIndex} from the database before the application reports ready, or on the task
+ * executor with {@code employee.search.index-in-background}, in which case searches miss employees not loaded yet.
+ * From then on the service keeps it current on every save, update and delete through this instance, and the
+ * {@link EmployeeSearchIndexFeed} on those through other instances.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.search.index-on-startup", havingValue = "true", matchIfMissing = true)
+public class EmployeeSearchIndexLoader implements ApplicationRunner {
+
+    private final EmployeeService employeeService;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeSearchIndexFeed searchIndexFeed;
+    private final TaskExecutor taskExecutor;
+
+    @Value("${employee.search.index-in-background:false}")
+    private boolean inBackground;
+
+    public EmployeeSearchIndexLoader(EmployeeService employeeService, EmployeeSearchIndex searchIndex,
+                                     EmployeeSearchIndexFeed searchIndexFeed,
+                                     @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor) {
+        this.employeeService = employeeService;
+        this.searchIndex = searchIndex;
+        this.searchIndexFeed = searchIndexFeed;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (inBackground) {
+            taskExecutor.execute(this::load);
+        } else {
+            load();
+        }
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        // changes committed after the table is read are applied by the feed, which must not start past them
+        searchIndexFeed.start();
+        searchIndex.startLoad();
+        try {
+            employeeService.streamAllEmployees(employee -> searchIndex.indexIfAbsent(
+                    new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail())));
+        } catch (RuntimeException ex) {
+            if (!inBackground) {
+                throw ex;
+            }
+            // nobody waits for the background load, so it is only logged; restarting the instance loads again
+            log.error("Loading the search index failed after {} employees", searchIndex.size(), ex);
+            return;
+        } finally {
+            searchIndex.finishLoad();
+        }
+        log.info("Indexed {} employees for search in {} ms", searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,28 @@
+package com.bkafirongo.springboottesting.service;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface EmployeeJobService {
+
+    // validates the parameters and queues the job, it runs in the background
+    EmployeeJob submitJob(EmployeeJob.Type type, Map<String, String> parameters);
+
+    // stores the upload in the database first, so any instance can run or resume the import without the client
+    EmployeeJob submitImport(EmployeeTransferFormat format, InputStream inputStream) throws IOException;
+
+    Optional<EmployeeJob> getJob(long id);
+
+    List<EmployeeJob> getRecentJobs(int limit);
+
+    EmployeeJob cancelJob(long id);
+
+    // requeues a cancelled or failed job, it continues from its checkpoint
+    EmployeeJob resumeJob(long id);
+}
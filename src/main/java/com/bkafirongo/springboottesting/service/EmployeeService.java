@@ -1,21 +1,63 @@
 package com.bkafirongo.springboottesting.service;
 
 import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeBulkResult;
+import com.bkafirongo.springboottesting.model.EmployeeChunkResult;
+import com.bkafirongo.springboottesting.model.EmployeePage;
+import com.bkafirongo.springboottesting.model.EmployeeView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     Employee saveEmployee(Employee employee);
 
+    List<EmployeeBulkResult> saveEmployees(Collection<Employee> employees);
 
-    Employee updateEmployee(Employee employee);
+    default Optional<Employee> updateEmployee(Employee employee) {
+        return updateEmployee(employee, null);
+    }
+
+    // expectedVersion null means unconditional, otherwise a mismatch throws PreconditionFailedException
+    Optional<Employee> updateEmployee(Employee employee, Long expectedVersion);
+
+    default Optional<Employee> patchEmployee(long employeeId, Map<String, Object> patch) {
+        return patchEmployee(employeeId, patch, null);
+    }
+
+    Optional<Employee> patchEmployee(long employeeId, Map<String, Object> patch, Long expectedVersion);
 
     List<Employee> getAllEmployees();
 
+    EmployeePage<Employee> getEmployeesPage(String cursor, int size);
+
+    EmployeePage<EmployeeView> getEmployeeViewsPage(String cursor, int size);
+
+    List<EmployeeView> searchEmployees(String firstName, String lastName);
+
+    // type-ahead: every word of the query must prefix the first name, last name or a part of the email
+    List<EmployeeView> searchEmployeesByPrefix(String query, int limit);
+
+    void streamAllEmployees(Consumer<Employee> consumer);
+
     Optional<Employee> getEmployeeById(Long employeeId);
 
-    void deleteEmployee(long employeeId);
+    // one query for the ids not cached, in request order without duplicates and unknown ids
+    List<Employee> getEmployeesByIds(Collection<Long> employeeIds);
+
+    default void deleteEmployee(long employeeId) {
+        deleteEmployee(employeeId, null);
+    }
+
+    void deleteEmployee(long employeeId, Long expectedVersion);
+
+    // bulk job chunks: one transaction over at most limit employees with an id above afterId
+    EmployeeChunkResult rewriteEmailDomain(long afterId, int limit, String fromDomain, String toDomain);
+
+    EmployeeChunkResult deleteByEmailDomain(long afterId, int limit, String domain);
 
 }
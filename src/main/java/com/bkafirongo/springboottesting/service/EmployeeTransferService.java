@@ -0,0 +1,25 @@
+package com.bkafirongo.springboottesting.service;
+
+import com.bkafirongo.springboottesting.model.EmployeeImportProgress;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
+public interface EmployeeTransferService {
+
+    // writes every employee to the stream without holding the directory in memory
+    void exportEmployees(EmployeeTransferFormat format, OutputStream outputStream) throws IOException;
+
+    // reads the upload row by row and creates employees in batches, reporting after each batch
+    default void importEmployees(EmployeeTransferFormat format, InputStream inputStream,
+                                 Consumer<EmployeeImportProgress> progress) throws IOException {
+        importEmployees(format, inputStream, 0, progress);
+    }
+
+    // rows before skipRows are read but not imported, they still count as processed
+    void importEmployees(EmployeeTransferFormat format, InputStream inputStream, long skipRows,
+                         Consumer<EmployeeImportProgress> progress) throws IOException;
+}
@@ -0,0 +1,102 @@
+package com.bkafirongo.springboottesting.service.impl;
+
+import com.bkafirongo.springboottesting.exception.ResourceNotFoundException;
+import com.bkafirongo.springboottesting.job.EmployeeJobRunner;
+import com.bkafirongo.springboottesting.job.EmployeeJobUploads;
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+import com.bkafirongo.springboottesting.repository.EmployeeJobRepository;
+import com.bkafirongo.springboottesting.service.EmployeeJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class EmployeeJobServiceImpl implements EmployeeJobService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final EmployeeJobRepository jobRepository;
+    private final EmployeeJobRunner jobRunner;
+    private final EmployeeJobUploads uploads;
+    private Clock clock = Clock.systemUTC();
+
+    @Override
+    public EmployeeJob submitJob(EmployeeJob.Type type, Map<String, String> parameters) {
+        if (type == null) {
+            throw new IllegalArgumentException("Job type is required");
+        }
+        var params = parameters == null ? Map.<String, String>of() : parameters;
+        jobRunner.handler(type).validate(params);
+        var now = clock.instant();
+        var job = jobRepository.save(EmployeeJob.builder()
+                .type(type)
+                .status(EmployeeJob.Status.QUEUED)
+                .parameters(params)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        // start right away when a slot is free instead of waiting for the next poll
+        jobRunner.dispatch();
+        return job;
+    }
+
+    @Override
+    public EmployeeJob submitImport(EmployeeTransferFormat format, InputStream inputStream) throws IOException {
+        var uploadId = uploads.store(inputStream);
+        try {
+            return submitJob(EmployeeJob.Type.IMPORT, Map.of("format", format.name(), "upload", uploadId));
+        } catch (RuntimeException ex) {
+            uploads.delete(uploadId);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Optional<EmployeeJob> getJob(long id) {
+        return jobRepository.findById(id);
+    }
+
+    @Override
+    public List<EmployeeJob> getRecentJobs(int limit) {
+        return jobRepository.findRecent(PageRequest.ofSize(Math.min(Math.max(limit, 1), MAX_LIMIT)));
+    }
+
+    // read-write so the returned state comes from the primary
+    @Override
+    @Transactional
+    public EmployeeJob cancelJob(long id) {
+        if (jobRepository.requestCancel(id, clock.instant()) == 0) {
+            throw notChanged(id, "is not queued or running");
+        }
+        return jobRepository.findById(id).orElseThrow();
+    }
+
+    @Override
+    @Transactional
+    public EmployeeJob resumeJob(long id) {
+        if (jobRepository.resume(id, clock.instant()) == 0) {
+            throw notChanged(id, "is not cancelled or failed");
+        }
+        // picked up by the next poll, once this transaction has committed
+        return jobRepository.findById(id).orElseThrow();
+    }
+
+    private RuntimeException notChanged(long id, String reason) {
+        if (!jobRepository.existsById(id)) {
+            return new ResourceNotFoundException("No job found for Id : " + id);
+        }
+        return new IllegalArgumentException("Job " + id + " " + reason);
+    }
+}
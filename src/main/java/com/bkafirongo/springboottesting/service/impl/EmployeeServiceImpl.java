@@ -1,40 +1,333 @@
 package com.bkafirongo.springboottesting.service.impl;
 
+import com.bkafirongo.springboottesting.cache.EmployeeCache;
+import com.bkafirongo.springboottesting.cache.EmployeeLookupCoalescer;
+import com.bkafirongo.springboottesting.exception.PreconditionFailedException;
 import com.bkafirongo.springboottesting.exception.ResourceNotFoundException;
 import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeBulkResult;
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import com.bkafirongo.springboottesting.model.EmployeeChunkResult;
+import com.bkafirongo.springboottesting.model.EmployeePage;
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import com.bkafirongo.springboottesting.repository.EmployeeChangeEventRepository;
 import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import com.bkafirongo.springboottesting.search.EmployeeSearchIndex;
 import com.bkafirongo.springboottesting.service.EmployeeService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class EmployeeServiceImpl implements EmployeeService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+    static final int MAX_LOOKUP_IDS = 1000;
+    static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "email");
+
     private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final EmployeeCache employeeCache;
+    private final EmployeeLookupCoalescer lookupCoalescer;
+    private final EmployeeSearchIndex searchIndex;
+    // every write appends its change event in the same transaction, see EmployeeOutboxRelay
+    private final EmployeeChangeEventRepository changeEvents;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${employee.bulk.batch-size:500}")
+    private int bulkBatchSize = 500;
 
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
 
-        var optionalEmployee = employeeRepository.findByEmail(employee.getEmail());
-
-        if (optionalEmployee.isPresent()) {
+        if (employeeCache.getByEmail(employee.getEmail()).isPresent()) {
             throw new ResourceNotFoundException("Employee already exists with given email address : " + employee.getEmail());
         }
 
-        return employeeRepository.save(employee);
+        // a single insert; the unique index on email rejects duplicates without a prior lookup.
+        // flushed so a duplicate is reported here rather than at commit when the id is not database generated
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateEmail(ex)) {
+                throw new ResourceNotFoundException("Employee already exists with given email address : " + employee.getEmail(), ex);
+            }
+            throw ex;
+        }
+        changeEvents.append(EmployeeChangeEvent.Type.CREATED, savedEmployee);
+        afterCommit(() -> {
+            employeeCache.put(savedEmployee);
+            searchIndex.index(savedEmployee);
+        });
+        return savedEmployee;
+    }
+
+    static boolean isDuplicateEmail(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase().contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
+            }
+            // plain JDBC writes only carry the driver message, which names the violated key
+            if (cause instanceof SQLException sqlException && sqlException.getMessage() != null
+                    && sqlException.getMessage().toLowerCase().contains(Employee.EMAIL_UNIQUE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
-    public Employee updateEmployee(Employee employee) {
-        var optionalEmployee = employeeRepository.findById(employee.getId());
-        if (optionalEmployee.isEmpty()) {
-            throw new ResourceNotFoundException("No User found for Id : " + employee.getId());
+    public List<EmployeeBulkResult> saveEmployees(Collection<Employee> employees) {
+        var results = new ArrayList<EmployeeBulkResult>(employees.size());
+        var seenEmails = new HashSet<String>();
+        var chunk = new ArrayList<Employee>(bulkBatchSize);
+        var chunkIndexes = new ArrayList<Integer>(bulkBatchSize);
+        int index = 0;
+        for (var employee : employees) {
+            results.add(null);
+            if (employee.getFirstName() == null || employee.getLastName() == null || employee.getEmail() == null) {
+                results.set(index, bulkResult(index, employee, EmployeeBulkResult.Status.INVALID,
+                        "firstName, lastName and email are required"));
+            } else if (!seenEmails.add(normalizeEmail(employee.getEmail()))) {
+                results.set(index, bulkResult(index, employee, EmployeeBulkResult.Status.DUPLICATE,
+                        "Duplicate email address in request : " + employee.getEmail()));
+            } else {
+                chunk.add(employee);
+                chunkIndexes.add(index);
+                if (chunk.size() == bulkBatchSize) {
+                    insertChunk(chunk, chunkIndexes, results);
+                }
+            }
+            index++;
+        }
+        insertChunk(chunk, chunkIndexes, results);
+        return results;
+    }
+
+    private void insertChunk(List<Employee> chunk, List<Integer> chunkIndexes, List<EmployeeBulkResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // the unique index compares emails case-insensitively, so the stored spelling may differ from the requested one
+        var existingEmails = new HashSet<String>();
+        for (var email : employeeRepository.findExistingEmails(chunk.stream().map(Employee::getEmail).toList())) {
+            existingEmails.add(normalizeEmail(email));
+        }
+        var toInsert = new ArrayList<Employee>(chunk.size());
+        var insertIndexes = new ArrayList<Integer>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            var employee = chunk.get(i);
+            if (existingEmails.contains(normalizeEmail(employee.getEmail()))) {
+                results.set(chunkIndexes.get(i), bulkResult(chunkIndexes.get(i), employee, EmployeeBulkResult.Status.DUPLICATE,
+                        "Employee already exists with given email address : " + employee.getEmail()));
+            } else {
+                toInsert.add(employee);
+                insertIndexes.add(chunkIndexes.get(i));
+            }
         }
-        return employeeRepository.save(employee);
+        try {
+            var inserted = insertAll(toInsert);
+            for (int i = 0; i < inserted.size(); i++) {
+                created(insertIndexes.get(i), inserted.get(i), results);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // an address was taken since the lookup; the chunk was rolled back, so find the offending rows one by one
+            for (int i = 0; i < toInsert.size(); i++) {
+                var employee = toInsert.get(i);
+                int index = insertIndexes.get(i);
+                try {
+                    created(index, insertAll(List.of(employee)).get(0), results);
+                } catch (DataIntegrityViolationException rowEx) {
+                    results.set(index, isDuplicateEmail(rowEx)
+                            ? bulkResult(index, employee, EmployeeBulkResult.Status.DUPLICATE,
+                            "Employee already exists with given email address : " + employee.getEmail())
+                            : bulkResult(index, employee, EmployeeBulkResult.Status.INVALID,
+                            rowEx.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    // one transaction per chunk, so a large request never holds locks for the whole payload
+    private List<Employee> insertAll(List<Employee> employees) {
+        return transactionTemplate.execute(status -> {
+            var rows = employeeRepository.batchInsert(employees);
+            changeEvents.appendAll(EmployeeChangeEvent.Type.CREATED, rows);
+            return rows;
+        });
+    }
+
+    private void created(int index, Employee employee, List<EmployeeBulkResult> results) {
+        searchIndex.index(employee);
+        results.set(index, bulkResult(index, employee, EmployeeBulkResult.Status.CREATED, null));
+    }
+
+    static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static EmployeeBulkResult bulkResult(int index, Employee employee, EmployeeBulkResult.Status status, String message) {
+        return EmployeeBulkResult.builder()
+                .index(index)
+                .email(employee.getEmail())
+                .id(status == EmployeeBulkResult.Status.CREATED ? employee.getId() : null)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public Optional<Employee> updateEmployee(Employee employee, Long expectedVersion) {
+        long id = employee.getId();
+        employeeCache.evict(id);
+        int updated;
+        try {
+            updated = expectedVersion == null
+                    ? employeeRepository.updateById(id, employee.getFirstName(), employee.getLastName(), employee.getEmail())
+                    : employeeRepository.updateByIdAndVersion(id, expectedVersion,
+                    employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateEmail(ex)) {
+                throw new ResourceNotFoundException("Employee already exists with given email address : " + employee.getEmail(), ex);
+            }
+            throw ex;
+        }
+        if (updated == 0) {
+            checkVersionConflict(id, expectedVersion);
+            return Optional.empty();
+        }
+        // the row is locked by our update until commit, so this reads our own version
+        employee.setVersion(expectedVersion != null
+                ? expectedVersion + 1
+                : employeeRepository.findVersionById(id).orElseThrow());
+        changeEvents.append(EmployeeChangeEvent.Type.UPDATED, employee);
+        // cached after commit, replacing the old row a read that missed the cache meanwhile may have put back
+        afterCommit(() -> {
+            employeeCache.put(employee);
+            searchIndex.index(employee);
+        });
+        return Optional.of(employee);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Employee> patchEmployee(long employeeId, Map<String, Object> patch, Long expectedVersion) {
+        // the locked row from the primary, not the cache: the diff and the If-Match check need the current version,
+        // and no other writer can move it before the update below
+        var current = employeeRepository.findByIdForUpdate(employeeId);
+        if (current.isEmpty()) {
+            return current;
+        }
+        var employee = current.get();
+        // the write below bypasses the persistence context, so changing the managed entity afterwards would make
+        // Hibernate flush it again against the already incremented version
+        entityManager.detach(employee);
+        if (expectedVersion != null && expectedVersion != employee.getVersion()) {
+            employeeCache.evict(employeeId);
+            throw preconditionFailed(employeeId, expectedVersion);
+        }
+        var changes = new LinkedHashMap<String, String>();
+        // JSON merge patch: absent members are kept, null would remove a required column
+        for (var entry : patch.entrySet()) {
+            var field = entry.getKey();
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field : " + field);
+            }
+            if (!(entry.getValue() instanceof String value)) {
+                throw new IllegalArgumentException("Field " + field + " must be a non null string");
+            }
+            if (!value.equals(fieldValue(employee, field))) {
+                changes.put(field, value);
+            }
+        }
+        if (changes.isEmpty()) {
+            return current;
+        }
+        employeeCache.evict(employeeId);
+        int updated;
+        try {
+            // conditional on the version the diff was computed from, which the row lock keeps current
+            updated = employeeRepository.patchById(employeeId, employee.getVersion(), changes);
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateEmail(ex)) {
+                throw new ResourceNotFoundException("Employee already exists with given email address : " + changes.get("email"), ex);
+            }
+            throw ex;
+        }
+        if (updated == 0) {
+            // only a failed If-Match is a precondition failure; an unconditional patch of a vanished row is a 404
+            checkVersionConflict(employeeId, expectedVersion);
+            return Optional.empty();
+        }
+        changes.forEach((field, value) -> {
+            switch (field) {
+                case "firstName" -> employee.setFirstName(value);
+                case "lastName" -> employee.setLastName(value);
+                default -> employee.setEmail(value);
+            }
+        });
+        employee.setVersion(employee.getVersion() + 1);
+        changeEvents.append(EmployeeChangeEvent.Type.UPDATED, employee);
+        afterCommit(() -> {
+            employeeCache.put(employee);
+            searchIndex.index(employee);
+        });
+        return Optional.of(employee);
+    }
+
+    // only called when a write matched no row: tell a missing employee apart from a stale version
+    private void checkVersionConflict(long employeeId, Long expectedVersion) {
+        if (expectedVersion != null && employeeRepository.existsById(employeeId)) {
+            throw preconditionFailed(employeeId, expectedVersion);
+        }
+    }
+
+    private static PreconditionFailedException preconditionFailed(long employeeId, long expectedVersion) {
+        return new PreconditionFailedException("Employee " + employeeId + " has been modified since version : " + expectedVersion);
+    }
+
+    private static String fieldValue(Employee employee, String field) {
+        return switch (field) {
+            case "firstName" -> employee.getFirstName();
+            case "lastName" -> employee.getLastName();
+            default -> employee.getEmail();
+        };
     }
 
     @Override
@@ -42,15 +335,208 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeRepository.findAll();
     }
 
+    @Override
+    public EmployeePage<Employee> getEmployeesPage(String cursor, int size) {
+        int pageSize = pageSize(size);
+        var rows = employeeRepository.findNextPage(decodeCursor(cursor), PageRequest.ofSize(pageSize + 1));
+        return toPage(rows, pageSize, Employee::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePage<EmployeeView> getEmployeeViewsPage(String cursor, int size) {
+        int pageSize = pageSize(size);
+        var rows = employeeRepository.findNextViewPage(decodeCursor(cursor), PageRequest.ofSize(pageSize + 1));
+        return toPage(rows, pageSize, EmployeeView::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> searchEmployees(String firstName, String lastName) {
+        return employeeRepository.findViewsByName(firstName, lastName);
+    }
+
+    @Override
+    public List<EmployeeView> searchEmployeesByPrefix(String query, int limit) {
+        return searchIndex.search(query, limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllEmployees(Consumer<Employee> consumer) {
+        try (var employees = employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                consumer.accept(employee);
+                // detach so the persistence context does not grow with the table
+                entityManager.detach(employee);
+            });
+        }
+    }
+
     @Override
     public Optional<Employee> getEmployeeById(Long employeeId) {
-        return employeeRepository.findById(employeeId);
+        var cached = employeeCache.getById(employeeId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        // concurrent misses share one query, see EmployeeLookupCoalescer
+        var employee = lookupCoalescer.findById(employeeId);
+        employee.ifPresent(employeeCache::put);
+        return employee;
     }
 
     @Override
-    public void deleteEmployee(long employeeId) {
-        var employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("No User found for Id : " + employeeId));
-        employeeRepository.delete(employee);
+    public List<Employee> getEmployeesByIds(Collection<Long> employeeIds) {
+        var ids = new LinkedHashSet<>(employeeIds);
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_LOOKUP_IDS + " ids can be requested at once");
+        }
+        var found = new HashMap<Long, Employee>(ids.size() * 2);
+        var missing = new ArrayList<Long>();
+        for (var id : ids) {
+            employeeCache.getById(id).ifPresentOrElse(employee -> found.put(id, employee), () -> missing.add(id));
+        }
+        if (!missing.isEmpty()) {
+            for (var employee : employeeRepository.findAllById(missing)) {
+                employeeCache.put(employee);
+                found.put(employee.getId(), employee);
+            }
+        }
+        // request order, unknown ids are left out
+        var employees = new ArrayList<Employee>(found.size());
+        for (var id : ids) {
+            var employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+
+    @Override
+    @Transactional
+    public void deleteEmployee(long employeeId, Long expectedVersion) {
+        employeeCache.evict(employeeId);
+        int deleted = expectedVersion == null
+                ? employeeRepository.deleteEmployeeById(employeeId)
+                : employeeRepository.deleteEmployeeByIdAndVersion(employeeId, expectedVersion);
+        if (deleted == 0) {
+            checkVersionConflict(employeeId, expectedVersion);
+            throw new ResourceNotFoundException("No User found for Id : " + employeeId);
+        }
+        changeEvents.appendDeleted(employeeId, expectedVersion);
+        // evicted again: a read that missed the cache before our commit may have cached the deleted row
+        afterCommit(() -> {
+            employeeCache.evict(employeeId);
+            searchIndex.remove(employeeId);
+        });
+    }
+
+    @Override
+    @Transactional
+    public EmployeeChunkResult rewriteEmailDomain(long afterId, int limit, String fromDomain, String toDomain) {
+        var rows = employeeRepository.findNextPageByEmailLike(afterId, "%@" + fromDomain, PageRequest.ofSize(limit));
+        if (rows.isEmpty()) {
+            return new EmployeeChunkResult(afterId, 0, 0, true);
+        }
+        var newEmails = new LinkedHashMap<Employee, String>();
+        for (var employee : rows) {
+            var email = employee.getEmail();
+            newEmails.put(employee, email.substring(0, email.lastIndexOf('@') + 1) + toDomain);
+        }
+        // an address already taken in the target domain, or by an earlier row of the chunk, is skipped rather than
+        // failing the whole chunk; compared like the case-insensitive unique index does
+        var taken = new HashSet<String>();
+        for (var email : employeeRepository.findExistingEmails(newEmails.values())) {
+            taken.add(normalizeEmail(email));
+        }
+        var updated = new ArrayList<Employee>(rows.size());
+        newEmails.forEach((employee, email) -> {
+            if (taken.add(normalizeEmail(email))) {
+                employeeCache.evict(employee.getId());
+                employee.setEmail(email);
+                updated.add(employee);
+            }
+        });
+        // dirty checking issues versioned, JDBC batched updates
+        entityManager.flush();
+        changeEvents.appendAll(EmployeeChangeEvent.Type.UPDATED, updated);
+        afterCommit(() -> updated.forEach(employee -> {
+            employeeCache.evict(employee.getId());
+            searchIndex.index(employee);
+        }));
+        long lastId = rows.get(rows.size() - 1).getId();
+        return new EmployeeChunkResult(lastId, updated.size(), rows.size() - updated.size(), rows.size() < limit);
+    }
+
+    @Override
+    @Transactional
+    public EmployeeChunkResult deleteByEmailDomain(long afterId, int limit, String domain) {
+        var rows = employeeRepository.findNextPageByEmailLike(afterId, "%@" + domain, PageRequest.ofSize(limit));
+        if (rows.isEmpty()) {
+            return new EmployeeChunkResult(afterId, 0, 0, true);
+        }
+        var ids = rows.stream().map(Employee::getId).toList();
+        employeeRepository.deleteAllByIdInBatch(ids);
+        changeEvents.appendAll(EmployeeChangeEvent.Type.DELETED, rows);
+        afterCommit(() -> ids.forEach(id -> {
+            employeeCache.evict(id);
+            searchIndex.remove(id);
+        }));
+        return new EmployeeChunkResult(ids.get(ids.size() - 1), rows.size(), 0, rows.size() < limit);
+    }
+
+    // cache and search index must only ever show committed rows: their updates run once the surrounding
+    // transaction has committed and are dropped on rollback; without a transaction they run right away
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Optional<Employee> findById(long employeeId) {
+        var cached = employeeCache.getById(employeeId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        var employee = employeeRepository.findById(employeeId);
+        employee.ifPresent(employeeCache::put);
+        return employee;
+    }
+
+    private static int pageSize(int size) {
+        return size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // rows are fetched with one extra element to know whether another page exists without a count query
+    private static <T> EmployeePage<T> toPage(List<T> rows, int pageSize, ToLongFunction<T> id) {
+        if (rows.size() <= pageSize) {
+            return new EmployeePage<>(rows, null);
+        }
+        var content = rows.subList(0, pageSize);
+        return new EmployeePage<>(content, encodeCursor(id.applyAsLong(content.get(pageSize - 1))));
+    }
+
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor : " + cursor, ex);
+        }
     }
 }
@@ -0,0 +1,199 @@
+package com.bkafirongo.springboottesting.service.impl;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeBulkResult;
+import com.bkafirongo.springboottesting.model.EmployeeImportProgress;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import com.bkafirongo.springboottesting.service.EmployeeTransferService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@Profile("!reactive")
+public class EmployeeTransferServiceImpl implements EmployeeTransferService {
+
+    // export columns; an import only reads firstName, lastName and email and ignores the rest
+    static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("firstName")
+            .addColumn("lastName")
+            .addColumn("email")
+            .addColumn("version")
+            .build()
+            .withHeader();
+
+    private final EmployeeService employeeService;
+    private final EmployeeRepository employeeRepository;
+    private final ObjectWriter csvWriter;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectReader csvReader;
+    private final ObjectReader ndjsonReader;
+
+    @Value("${employee.bulk.batch-size:500}")
+    private int batchSize = 500;
+
+    public EmployeeTransferServiceImpl(EmployeeService employeeService, EmployeeRepository employeeRepository,
+                                       ObjectMapper objectMapper) {
+        this.employeeService = employeeService;
+        this.employeeRepository = employeeRepository;
+        var csvMapper = new CsvMapper();
+        this.csvWriter = csvMapper.writerFor(Employee.class).with(CSV_SCHEMA)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.ndjsonWriter = objectMapper.writerFor(Employee.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // columns are matched by the header row, so their order in the upload does not matter
+        this.csvReader = csvMapper.readerFor(Employee.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.ndjsonReader = objectMapper.readerFor(Employee.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public void exportEmployees(EmployeeTransferFormat format, OutputStream outputStream) throws IOException {
+        try (var values = writer(format).writeValues(outputStream)) {
+            employeeRepository.exportAll(employee -> {
+                try {
+                    values.write(employee);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            values.flush();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private ObjectWriter writer(EmployeeTransferFormat format) {
+        // NDJSON: the root value separator is a newline
+        return format == EmployeeTransferFormat.CSV ? csvWriter : ndjsonWriter.withRootValueSeparator("\n");
+    }
+
+    @Override
+    public void importEmployees(EmployeeTransferFormat format, InputStream inputStream, long skipRows,
+                                Consumer<EmployeeImportProgress> progress) throws IOException {
+        long start = System.nanoTime();
+        var reader = format == EmployeeTransferFormat.CSV ? csvReader : ndjsonReader;
+        var totals = new Totals();
+        var batch = new ArrayList<Employee>(batchSize);
+        var batchRows = new ArrayList<Long>(batchSize);
+        var errors = new ArrayList<EmployeeBulkResult>();
+        String message = null;
+        try (var rows = reader.<Employee>readValues(inputStream)) {
+            while (rows.hasNextValue()) {
+                long row = totals.processed;
+                if (row < skipRows) {
+                    skip(rows);
+                    totals.processed++;
+                    continue;
+                }
+                try {
+                    var employee = rows.nextValue();
+                    // only the writable properties, ids and versions of an export are assigned anew
+                    batch.add(Employee.builder()
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .build());
+                    batchRows.add(row);
+                } catch (JsonParseException ex) {
+                    throw ex;
+                } catch (JsonMappingException ex) {
+                    // the iterator skips the rest of the row, so one malformed row does not end the import
+                    errors.add(invalidRow(row, ex.getOriginalMessage()));
+                }
+                totals.processed++;
+                if (batch.size() + errors.size() == batchSize) {
+                    progress.accept(importBatch(batch, batchRows, errors, totals, false, null));
+                }
+            }
+        } catch (JsonParseException ex) {
+            // a syntax error leaves no row boundary to resume from
+            message = "Upload is not valid " + format + " at row " + totals.processed + " : " + ex.getOriginalMessage();
+        }
+        progress.accept(importBatch(batch, batchRows, errors, totals, true, message));
+        log.info("Imported {} of {} employees from {} in {} ms", totals.created, totals.processed, format,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void skip(MappingIterator<Employee> rows) throws IOException {
+        try {
+            rows.nextValue();
+        } catch (JsonParseException ex) {
+            throw ex;
+        } catch (JsonMappingException ex) {
+            // reported when the row was first imported
+        }
+    }
+
+    private EmployeeImportProgress importBatch(List<Employee> batch, List<Long> batchRows, List<EmployeeBulkResult> errors,
+                                               Totals totals, boolean done, String message) {
+        if (!batch.isEmpty()) {
+            for (var result : employeeService.saveEmployees(batch)) {
+                if (result.getStatus() == EmployeeBulkResult.Status.CREATED) {
+                    totals.created++;
+                } else {
+                    errors.add(EmployeeBulkResult.builder()
+                            .index(batchRows.get(result.getIndex()).intValue())
+                            .email(result.getEmail())
+                            .status(result.getStatus())
+                            .message(result.getMessage())
+                            .build());
+                }
+            }
+        }
+        totals.failed += errors.size();
+        var batchProgress = EmployeeImportProgress.builder()
+                .processed(totals.processed)
+                .created(totals.created)
+                .failed(totals.failed)
+                .errors(List.copyOf(errors))
+                .done(done)
+                .message(message)
+                .build();
+        batch.clear();
+        batchRows.clear();
+        errors.clear();
+        return batchProgress;
+    }
+
+    private static EmployeeBulkResult invalidRow(long row, String message) {
+        return EmployeeBulkResult.builder()
+                .index((int) row)
+                .status(EmployeeBulkResult.Status.INVALID)
+                .message(message)
+                .build();
+    }
+
+    private static final class Totals {
+        long processed;
+        long created;
+        long failed;
+    }
+}
@@ -0,0 +1,10 @@
+create table if not exists employees (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    version bigint not null default 0,
+    primary key (id),
+    constraint uk_employees_email unique (email),
+    index idx_employees_first_name_last_name (first_name, last_name)
+);
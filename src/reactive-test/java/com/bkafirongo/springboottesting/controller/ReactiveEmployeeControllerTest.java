@@ -0,0 +1,159 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.exception.PreconditionFailedException;
+import com.bkafirongo.springboottesting.exception.ResourceNotFoundException;
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.service.ReactiveEmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+@WebFluxTest(ReactiveEmployeeController.class)
+@ActiveProfiles("reactive")
+class ReactiveEmployeeControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveEmployeeService employeeService;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setup() {
+        employee = Employee
+                .builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Doe")
+                .email("email@example.com")
+                .build();
+    }
+
+    @DisplayName("JUnit test for reactive create employee")
+    @Test
+    void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        // given - precondition or setup
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willReturn(Mono.just(employee));
+        // when - condition or the behaviour that we are going to test
+        var response = webTestClient.post().uri("/api/employees")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+        // then -verify the output
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    @DisplayName("JUnit test for reactive get all employees as NDJSON")
+    @Test
+    void givenEmployeeList_whenGetAllEmployees_thenStreamEmployees() {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees())
+                .willReturn(Flux.just(employee, employee));
+        // when - condition or the behaviour that we are going to test
+        var response = webTestClient.get().uri("/api/employees")
+                .accept(APPLICATION_NDJSON)
+                .exchange();
+        // then -verify the output
+        response.expectStatus().isOk()
+                .expectBodyList(Employee.class)
+                .hasSize(2);
+    }
+
+    @DisplayName("JUnit test for reactive get employee by id | Negative scenario")
+    @Test
+    void givenEmployeeId_whenGetEmployeeById_thenReturnNotFound() {
+        // given - precondition or setup
+        given(employeeService.getEmployeeById(1L))
+                .willReturn(Mono.empty());
+        // when - condition or the behaviour that we are going to test
+        var response = webTestClient.get().uri("/api/employees/{id}", 1L).exchange();
+        // then -verify the output
+        response.expectStatus().isNotFound();
+    }
+
+    @DisplayName("JUnit test for reactive update employee | Negative scenario")
+    @Test
+    void givenEmployeeObject_whenUpdateEmployee_thenReturnNotFound() {
+        // given - precondition or setup
+        given(employeeService.updateEmployee(any(Employee.class), isNull()))
+                .willReturn(Mono.empty());
+        // when - condition or the behaviour that we are going to test
+        var response = webTestClient.put().uri("/api/employees/{id}", 1L)
+                .contentType(APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+        // then -verify the output
+        response.expectStatus().isNotFound();
+    }
+
+    @DisplayName("JUnit test for reactive update employee with If-Match")
+    @Test
+    void givenIfMatch_whenUpdateEmployee_thenReturnEmployeeWithETag() {
+        // given - precondition or setup
+        given(employeeService.updateEmployee(any(Employee.class), eq(3L)))
+                .willAnswer(invocation -> {
+                    Employee updated = invocation.getArgument(0);
+                    updated.setVersion(4);
+                    return Mono.just(updated);
+                });
+        // when - condition or the behaviour that we are going to test
+        var response = webTestClient.put().uri("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+        // then -verify the output
+        response.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"");
+    }
+
+    @DisplayName("JUnit test for reactive update employee with a stale If-Match | Negative scenario")
+    @Test
+    void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() {
+        // given - precondition or setup
+        given(employeeService.updateEmployee(any(Employee.class), eq(3L)))
+                .willReturn(Mono.error(new PreconditionFailedException("Employee 1 has been modified since version : 3")));
+        // when - condition or the behaviour that we are going to test
+        var response = webTestClient.put().uri("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+        // then -verify the output
+        response.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @DisplayName("JUnit test for reactive delete employee | Negative scenario")
+    @Test
+    void givenEmployeeId_whenDeleteEmployee_thenReturn400() {
+        // given - precondition or setup
+        given(employeeService.deleteEmployee(1L))
+                .willReturn(Mono.error(new ResourceNotFoundException("No User found for Id : 1")));
+        // when - condition or the behaviour that we are going to test
+        var response = webTestClient.delete().uri("/api/employees/{id}", 1L).exchange();
+        // then -verify the output
+        response.expectStatus().isBadRequest();
+    }
+}
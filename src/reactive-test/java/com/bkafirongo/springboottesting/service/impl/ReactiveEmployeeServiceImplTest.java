@@ -0,0 +1,157 @@
+package com.bkafirongo.springboottesting.service.impl;
+
+import com.bkafirongo.springboottesting.exception.PreconditionFailedException;
+import com.bkafirongo.springboottesting.exception.ResourceNotFoundException;
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.repository.ReactiveEmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveEmployeeServiceImplTest {
+
+    @Mock
+    private ReactiveEmployeeRepository employeeRepository;
+    @InjectMocks
+    private ReactiveEmployeeServiceImpl employeeService;
+    private Employee employee;
+
+    @BeforeEach
+    void setup() {
+        employee = Employee
+                .builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Doe")
+                .email("email@example.com")
+                .build();
+    }
+
+    @DisplayName("JUnit test for reactive save employee method")
+    @Test
+    void givenEmployeeObject_whenSaveEmployee_thenReturnSavedEmployee() {
+        // given - precondition or setup
+        given(employeeRepository.insert(employee))
+                .willReturn(Mono.just(employee));
+        // when - condition or the behaviour that we are going to test
+        var savedEmployee = employeeService.saveEmployee(employee);
+        // then - verify the output
+        StepVerifier.create(savedEmployee)
+                .expectNext(employee)
+                .verifyComplete();
+    }
+
+    @DisplayName("JUnit test for reactive save employee which emits error")
+    @Test
+    void givenExistingEmail_whenSaveEmployee_thenEmitError() {
+        // given - precondition or setup
+        given(employeeRepository.insert(employee))
+                .willReturn(Mono.error(new DuplicateKeyException("Duplicate entry")));
+        // when - condition or the behaviour that we are going to test
+        var savedEmployee = employeeService.saveEmployee(employee);
+        // then - verify the output
+        StepVerifier.create(savedEmployee)
+                .verifyError(ResourceNotFoundException.class);
+        verify(employeeRepository, never())
+                .findByEmail(any());
+    }
+
+    @DisplayName("JUnit test for reactive get all employees")
+    @Test
+    void givenEmployeeList_whenGetAllEmployees_thenEmitEmployees() {
+        // given - precondition or setup
+        given(employeeRepository.findAll())
+                .willReturn(Flux.just(employee, employee));
+        // when - condition or the behaviour that we are going to test
+        var employees = employeeService.getAllEmployees();
+        // then - verify the output
+        StepVerifier.create(employees, 1)
+                .expectNext(employee)
+                .thenRequest(1)
+                .expectNext(employee)
+                .verifyComplete();
+    }
+
+    @DisplayName("JUnit test for reactive update employee of a missing employee")
+    @Test
+    void givenMissingEmployee_whenUpdateEmployee_thenEmitNothing() {
+        // given - precondition or setup
+        given(employeeRepository.update(employee))
+                .willReturn(Mono.just(0L));
+        // when - condition or the behaviour that we are going to test
+        var updatedEmployee = employeeService.updateEmployee(employee, null);
+        // then - verify the output
+        StepVerifier.create(updatedEmployee)
+                .verifyComplete();
+    }
+
+    @DisplayName("JUnit test for reactive update employee with the expected version")
+    @Test
+    void givenExpectedVersion_whenUpdateEmployee_thenReturnNextVersion() {
+        // given - precondition or setup
+        given(employeeRepository.updateByIdAndVersion(employee, 3L))
+                .willReturn(Mono.just(1L));
+        // when - condition or the behaviour that we are going to test
+        var updatedEmployee = employeeService.updateEmployee(employee, 3L);
+        // then - verify the output
+        StepVerifier.create(updatedEmployee)
+                .assertNext(updated -> assertThat(updated.getVersion()).isEqualTo(4))
+                .verifyComplete();
+    }
+
+    @DisplayName("JUnit test for reactive update employee with a stale version")
+    @Test
+    void givenStaleVersion_whenUpdateEmployee_thenEmitPreconditionFailed() {
+        // given - precondition or setup
+        given(employeeRepository.updateByIdAndVersion(employee, 3L))
+                .willReturn(Mono.just(0L));
+        given(employeeRepository.findById(1L))
+                .willReturn(Mono.just(employee));
+        // when - condition or the behaviour that we are going to test
+        var updatedEmployee = employeeService.updateEmployee(employee, 3L);
+        // then - verify the output
+        StepVerifier.create(updatedEmployee)
+                .verifyError(PreconditionFailedException.class);
+    }
+
+    @DisplayName("JUnit test for reactive update employee to an existing email")
+    @Test
+    void givenExistingEmail_whenUpdateEmployee_thenEmitError() {
+        // given - precondition or setup
+        given(employeeRepository.update(employee))
+                .willReturn(Mono.error(new DuplicateKeyException("Duplicate entry")));
+        // when - condition or the behaviour that we are going to test
+        var updatedEmployee = employeeService.updateEmployee(employee, null);
+        // then - verify the output
+        StepVerifier.create(updatedEmployee)
+                .verifyError(ResourceNotFoundException.class);
+    }
+
+    @DisplayName("JUnit test for reactive delete employee")
+    @Test
+    void givenEmployeeId_whenDeleteEmployee_thenComplete() {
+        // given - precondition or setup
+        given(employeeRepository.deleteById(1L))
+                .willReturn(Mono.just(1L));
+        // when - condition or the behaviour that we are going to test
+        var deleted = employeeService.deleteEmployee(1L);
+        // then - verify the output
+        StepVerifier.create(deleted)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,61 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.service.ReactiveEmployeeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link EmployeeController}, active with the reactive profile.
+ */
+@RestController
+@RequestMapping("/api/employees")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeController {
+
+    private final ReactiveEmployeeService employeeService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    // rows are pulled from the database only as fast as the client reads them
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    Flux<Employee> getAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    @GetMapping("/{id}")
+    Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable Long id) {
+        return employeeService.getEmployeeById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable Long id, @RequestBody Employee employee,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        employee.setId(id);
+        return employeeService.updateEmployee(employee, EmployeeController.ifMatchVersion(ifMatch))
+                .map(emp -> ResponseEntity.ok().eTag(EmployeeController.eTag(emp)).body(emp))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    Mono<ResponseEntity<String>> deleteEmployee(@PathVariable Long id) {
+        return employeeService.deleteEmployee(id)
+                .thenReturn(ResponseEntity.ok("Employee deleted successfully"));
+    }
+
+}
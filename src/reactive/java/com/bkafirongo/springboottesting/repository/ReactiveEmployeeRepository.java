@@ -0,0 +1,94 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the employees table over R2DBC, used by the reactive profile.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<Employee> findAll() {
+        return databaseClient.sql("select id, first_name, last_name, email, version from employees order by id")
+                .filter(statement -> statement.fetchSize(256))
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Mono<Employee> findById(long id) {
+        return databaseClient.sql("select id, first_name, last_name, email, version from employees where id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Mono<Employee> findByEmail(String email) {
+        return databaseClient.sql("select id, first_name, last_name, email, version from employees where email = :email")
+                .bind("email", email)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .first();
+    }
+
+    public Mono<Employee> insert(Employee employee) {
+        return databaseClient.sql("insert into employees (first_name, last_name, email, version) values (:firstName, :lastName, :email, 0)")
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    employee.setId(id);
+                    return employee;
+                });
+    }
+
+    public Mono<Long> update(Employee employee) {
+        return databaseClient.sql("update employees set first_name = :firstName, last_name = :lastName, email = :email, version = version + 1 where id = :id")
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .bind("id", employee.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> updateByIdAndVersion(Employee employee, long expectedVersion) {
+        return databaseClient.sql("update employees set first_name = :firstName, last_name = :lastName, email = :email, version = version + 1 where id = :id and version = :version")
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .bind("id", employee.getId())
+                .bind("version", expectedVersion)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("delete from employees where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Employee toEmployee(Readable row) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.bkafirongo.springboottesting.service;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeService {
+
+    Mono<Employee> saveEmployee(Employee employee);
+
+    // empty when there is no such employee; expectedVersion is null for an unconditional update
+    Mono<Employee> updateEmployee(Employee employee, Long expectedVersion);
+
+    Flux<Employee> getAllEmployees();
+
+    Mono<Employee> getEmployeeById(Long employeeId);
+
+    Mono<Void> deleteEmployee(long employeeId);
+
+}
@@ -0,0 +1,81 @@
+package com.bkafirongo.springboottesting.service.impl;
+
+import com.bkafirongo.springboottesting.exception.PreconditionFailedException;
+import com.bkafirongo.springboottesting.exception.ResourceNotFoundException;
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.repository.ReactiveEmployeeRepository;
+import com.bkafirongo.springboottesting.service.ReactiveEmployeeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private final ReactiveEmployeeRepository employeeRepository;
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        return employeeRepository.insert(employee)
+                .onErrorMap(DuplicateKeyException.class, ex -> new ResourceNotFoundException(
+                        "Employee already exists with given email address : " + employee.getEmail(), ex));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Employee> updateEmployee(Employee employee, Long expectedVersion) {
+        var update = expectedVersion == null
+                ? employeeRepository.update(employee)
+                : employeeRepository.updateByIdAndVersion(employee, expectedVersion);
+        return update
+                .onErrorMap(DuplicateKeyException.class, ex -> new ResourceNotFoundException(
+                        "Employee already exists with given email address : " + employee.getEmail(), ex))
+                .flatMap(rows -> rows == 0
+                        ? checkVersionConflict(employee.getId(), expectedVersion)
+                        : updatedVersion(employee.getId(), expectedVersion).map(version -> {
+                    employee.setVersion(version);
+                    return employee;
+                }));
+    }
+
+    // the row is locked by our update until commit, so this reads our own version
+    private Mono<Long> updatedVersion(long employeeId, Long expectedVersion) {
+        return expectedVersion != null
+                ? Mono.just(expectedVersion + 1)
+                : employeeRepository.findById(employeeId).map(Employee::getVersion);
+    }
+
+    // nothing updated: a conflict when the row exists, otherwise empty
+    private Mono<Employee> checkVersionConflict(long employeeId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return employeeRepository.findById(employeeId)
+                .flatMap(current -> Mono.error(new PreconditionFailedException(
+                        "Employee " + employeeId + " has been modified since version : " + expectedVersion)));
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        return employeeRepository.findAll();
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(Long employeeId) {
+        return employeeRepository.findById(employeeId);
+    }
+
+    @Override
+    public Mono<Void> deleteEmployee(long employeeId) {
+        return employeeRepository.deleteById(employeeId)
+                .flatMap(rows -> rows == 0
+                        ? Mono.error(new ResourceNotFoundException("No User found for Id : " + employeeId))
+                        : Mono.empty());
+    }
+}
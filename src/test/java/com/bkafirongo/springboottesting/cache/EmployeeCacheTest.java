@@ -0,0 +1,81 @@
+package com.bkafirongo.springboottesting.cache;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeCacheTest {
+
+    private EmployeeCache employeeCache;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employeeCache = new EmployeeCache(100, Duration.ofMinutes(1));
+        employee = Employee
+                .builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Doe")
+                .email("email@example.com")
+                .build();
+    }
+
+    @DisplayName("JUnit test for cache lookup by id and email")
+    @Test
+    void givenCachedEmployee_whenGetByIdAndEmail_thenReturnCopies() {
+        // given - precondition or setup
+        employeeCache.put(employee);
+        // when - condition or the behaviour that we are going to test
+        var byId = employeeCache.getById(1L);
+        var byEmail = employeeCache.getByEmail("email@example.com");
+        // then - verify the output
+        assertThat(byId).isPresent();
+        assertThat(byEmail).isPresent();
+        assertThat(byId.get()).isNotSameAs(employee);
+        assertThat(employeeCache.idStats().hitCount()).isEqualTo(1);
+    }
+
+    @DisplayName("JUnit test for cache isolation from caller mutation")
+    @Test
+    void givenCachedEmployee_whenCallerMutatesResult_thenCacheUnchanged() {
+        // given - precondition or setup
+        employeeCache.put(employee);
+        // when - condition or the behaviour that we are going to test
+        employeeCache.getById(1L).get().setEmail("changed@example.com");
+        // then - verify the output
+        assertThat(employeeCache.getById(1L).get().getEmail()).isEqualTo("email@example.com");
+    }
+
+    @DisplayName("JUnit test for cache invalidation of the old email on update")
+    @Test
+    void givenCachedEmployee_whenPutWithNewEmail_thenOldEmailMisses() {
+        // given - precondition or setup
+        employeeCache.put(employee);
+        // when - condition or the behaviour that we are going to test
+        employee.setEmail("new-email@example.com");
+        employeeCache.put(employee);
+        // then - verify the output
+        assertThat(employeeCache.getByEmail("email@example.com")).isEmpty();
+        assertThat(employeeCache.getByEmail("new-email@example.com")).isPresent();
+    }
+
+    @DisplayName("JUnit test for cache eviction by id")
+    @Test
+    void givenCachedEmployee_whenEvict_thenMiss() {
+        // given - precondition or setup
+        employeeCache.put(employee);
+        // when - condition or the behaviour that we are going to test
+        employeeCache.evict(1L);
+        // then - verify the output
+        assertThat(employeeCache.getById(1L)).isEmpty();
+        assertThat(employeeCache.getByEmail("email@example.com")).isEmpty();
+        assertThat(employeeCache.idStats().missCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,202 @@
+package com.bkafirongo.springboottesting.cache;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EmployeeLookupCoalescerTest {
+
+    private EmployeeRepository employeeRepository;
+    private SimpleMeterRegistry registry;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository = mock(EmployeeRepository.class);
+        registry = new SimpleMeterRegistry();
+        callers = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @DisplayName("JUnit test for lookups arriving during a query merged into the next one")
+    @Test
+    void givenQueryRunning_whenConcurrentFindById_thenOneQueryForAllIds() throws Exception {
+        // given - precondition or setup
+        var coalescer = coalescer(Duration.ofSeconds(30), 8);
+        var release = new CountDownLatch(1);
+        given(employeeRepository.findAllById(any()))
+                .willAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    if (ids.contains(100L)) {
+                        release.await(5, TimeUnit.SECONDS);
+                    }
+                    // id 8 does not exist
+                    return ids.stream().filter(id -> id != 8).map(EmployeeLookupCoalescerTest::employee).toList();
+                });
+        var running = callers.submit(() -> coalescer.findById(100));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.summary("employee.lookup.batch.size").count() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        // when - condition or the behaviour that we are going to test
+        var results = new ArrayList<Future<Optional<Employee>>>();
+        for (long id = 1; id <= 8; id++) {
+            long employeeId = id;
+            results.add(callers.submit(() -> coalescer.findById(employeeId)));
+        }
+        // then - verify the output
+        for (int i = 0; i < 7; i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS)).get()
+                    .extracting(Employee::getId).isEqualTo(i + 1L);
+        }
+        assertThat(results.get(7).get(5, TimeUnit.SECONDS)).isEmpty();
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isPresent();
+        verify(employeeRepository, times(2))
+                .findAllById(any());
+        assertThat(registry.summary("employee.lookup.batch.size").totalAmount()).isEqualTo(9);
+    }
+
+    @DisplayName("JUnit test for a lone lookup loaded without waiting for the window")
+    @Test
+    void givenNoQueryRunning_whenFindById_thenLoadBeforeWindowEnds() {
+        // given - precondition or setup
+        var coalescer = coalescer(Duration.ofSeconds(30), 100);
+        given(employeeRepository.findAllById(any()))
+                .willReturn(List.of(employee(1)))
+                .willReturn(List.of(employee(2)));
+        // when - condition or the behaviour that we are going to test
+        long start = System.nanoTime();
+        var first = coalescer.findById(1);
+        var second = coalescer.findById(2);
+        // then - verify the output
+        assertThat(first).isPresent();
+        assertThat(second).isPresent();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @DisplayName("JUnit test for identical lookups joining the one in flight")
+    @Test
+    void givenSameIdInFlight_whenFindById_thenJoinLookup() throws Exception {
+        // given - precondition or setup
+        var coalescer = coalescer(Duration.ZERO, 100);
+        var release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(employee(1));
+        }).given(employeeRepository).findAllById(any());
+        // when - condition or the behaviour that we are going to test
+        var results = new ArrayList<Future<Optional<Employee>>>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> coalescer.findById(1)));
+        }
+        var coalesced = registry.counter("employee.lookup.coalesced");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced.count() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        // then - verify the output
+        for (var result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isPresent();
+        }
+        assertThat(coalesced.count()).isEqualTo(3);
+        verify(employeeRepository, times(1))
+                .findAllById(any());
+        // callers get their own copies of the shared row
+        assertThat(results.get(0).get().get()).isNotSameAs(results.get(1).get().get());
+    }
+
+    @DisplayName("JUnit test for a failed query reported to every caller")
+    @Test
+    void givenQueryFails_whenFindById_thenThrowsAndNextLookupQueriesAgain() {
+        // given - precondition or setup
+        var coalescer = coalescer(Duration.ZERO, 100);
+        given(employeeRepository.findAllById(any()))
+                .willThrow(new DataAccessResourceFailureException("down"))
+                .willReturn(List.of(employee(1)));
+        // when - condition or the behaviour that we are going to test
+        assertThrows(DataAccessResourceFailureException.class, () -> coalescer.findById(1));
+        var retry = coalescer.findById(1);
+        // then - verify the output
+        assertThat(retry).isPresent();
+        verify(employeeRepository, times(2))
+                .findAllById(any());
+    }
+
+    @DisplayName("JUnit test for a query failing with an Error releasing its lookups")
+    @Test
+    void givenQueryFailsWithError_whenFindById_thenThrowsAndNextLookupQueriesAgain() throws Exception {
+        // given - precondition or setup
+        var coalescer = coalescer(Duration.ZERO, 100);
+        given(employeeRepository.findAllById(any()))
+                .willThrow(new StackOverflowError("deep"))
+                .willReturn(List.of(employee(1)));
+        // when - condition or the behaviour that we are going to test
+        assertThrows(StackOverflowError.class, () -> coalescer.findById(1));
+        var retry = callers.submit(() -> coalescer.findById(1));
+        // then - verify the output
+        assertThat(retry.get(5, TimeUnit.SECONDS)).isPresent();
+        verify(employeeRepository, times(2))
+                .findAllById(any());
+    }
+
+    @DisplayName("JUnit test for a full batch loaded without waiting for the window")
+    @Test
+    void givenFullBatch_whenFindById_thenLoadBeforeWindowEnds() {
+        // given - precondition or setup
+        var coalescer = coalescer(Duration.ofSeconds(30), 1);
+        given(employeeRepository.findAllById(any()))
+                .willReturn(List.of(employee(1)));
+        // when - condition or the behaviour that we are going to test
+        long start = System.nanoTime();
+        var employee = coalescer.findById(1);
+        // then - verify the output
+        assertThat(employee).isPresent();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    private EmployeeLookupCoalescer coalescer(Duration window, int maxBatchSize) {
+        var coalescer = new EmployeeLookupCoalescer(employeeRepository, window, maxBatchSize);
+        coalescer.bindTo(registry);
+        return coalescer;
+    }
+
+    private static Employee employee(long id) {
+        return Employee.builder()
+                .id(id)
+                .firstName("first" + id)
+                .lastName("last" + id)
+                .email("employee" + id + "@example.com")
+                .build();
+    }
+}
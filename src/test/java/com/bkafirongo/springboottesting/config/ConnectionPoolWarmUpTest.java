@@ -0,0 +1,106 @@
+package com.bkafirongo.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ConnectionPoolWarmUpTest {
+
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+    private AtomicInteger opened;
+
+    @BeforeEach
+    void setUp() {
+        opened = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (var closeable : closeables) {
+            closeable.close();
+        }
+    }
+
+    @DisplayName("JUnit test for warming up a pool to its minimum idle size")
+    @Test
+    void givenColdPool_whenWarmUp_thenMinimumIdleConnectionsOpen() {
+        // given - precondition or setup
+        var pool = pool("primary", 5, Integer.MAX_VALUE);
+        // when - condition or the behaviour that we are going to test
+        int warmed = ConnectionPoolWarmUp.warmUp(pool);
+        // then - verify the output
+        assertThat(warmed).isEqualTo(5);
+        assertThat(pool.getHikariPoolMXBean().getTotalConnections()).isGreaterThanOrEqualTo(5);
+        assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+
+    @DisplayName("JUnit test for warm up stopping when the database refuses connections")
+    @Test
+    void givenDatabaseRefusesConnections_whenWarmUp_thenStopWithoutFailing() {
+        // given - precondition or setup
+        var pool = pool("primary", 5, 2);
+        // when - condition or the behaviour that we are going to test
+        int warmed = ConnectionPoolWarmUp.warmUp(pool);
+        // then - verify the output
+        assertThat(warmed).isBetween(1, 2);
+        assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+
+    @DisplayName("JUnit test for finding the pools behind wrappers and read/write routing")
+    @Test
+    void givenWrappedRoutingDataSource_whenFindPools_thenPrimaryAndReplicas() throws Exception {
+        // given - precondition or setup
+        var primary = pool("primary", 1, Integer.MAX_VALUE);
+        var replica = pool("replica-0", 1, Integer.MAX_VALUE);
+        var routing = new ReadWriteRoutingDataSource(primary, Map.of("replica-0", replica), Duration.ofHours(1));
+        closeables.add(routing);
+        // when - condition or the behaviour that we are going to test
+        var routed = HikariPools.of(new DelegatingDataSource(routing));
+        var single = HikariPools.of(new DelegatingDataSource(primary));
+        // then - verify the output
+        assertThat(routed).containsExactly(primary, replica);
+        assertThat(single).containsExactly(primary);
+    }
+
+    // a pool over a stub driver that hands out at most the given number of connections
+    private HikariDataSource pool(String name, int minimumIdle, int maxConnections) {
+        var dataSource = mock(DataSource.class);
+        try {
+            given(dataSource.getConnection()).willAnswer(invocation -> {
+                if (opened.incrementAndGet() > maxConnections) {
+                    throw new SQLException("Too many connections");
+                }
+                var connection = mock(Connection.class);
+                given(connection.isValid(anyInt())).willReturn(true);
+                return connection;
+            });
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+        var pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setDataSource(dataSource);
+        pool.setMinimumIdle(minimumIdle);
+        pool.setMaximumPoolSize(10);
+        pool.setConnectionTimeout(250);
+        closeables.add(pool);
+        return pool;
+    }
+}
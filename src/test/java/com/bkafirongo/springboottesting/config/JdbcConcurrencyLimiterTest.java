@@ -0,0 +1,74 @@
+package com.bkafirongo.springboottesting.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcConcurrencyLimiterTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+
+    private JdbcConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new JdbcConcurrencyLimiter(dataSource, 1, Duration.ofMillis(50));
+    }
+
+    @DisplayName("JUnit test for permit released when connection is closed")
+    @Test
+    void givenLimiter_whenConnectionClosed_thenPermitReleased() throws SQLException {
+        // given - precondition or setup
+        given(dataSource.getConnection()).willReturn(connection);
+        // when - condition or the behaviour that we are going to test
+        var limited = limiter.getConnection();
+        assertThat(limiter.availablePermits()).isZero();
+        limited.close();
+        limited.close();
+        // then - verify the output
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+        verify(connection, times(1)).close();
+    }
+
+    @DisplayName("JUnit test for limiter which times out when no permit is available")
+    @Test
+    void givenExhaustedLimiter_whenGetConnection_thenThrowException() throws SQLException {
+        // given - precondition or setup
+        given(dataSource.getConnection()).willReturn(connection);
+        limiter.getConnection();
+        // when - condition or the behaviour that we are going to test
+        assertThrows(CannotGetJdbcConnectionException.class, () -> limiter.getConnection());
+        // then - verify the output
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @DisplayName("JUnit test for permit released when the pool fails")
+    @Test
+    void givenFailingDataSource_whenGetConnection_thenPermitReleased() throws SQLException {
+        // given - precondition or setup
+        given(dataSource.getConnection()).willThrow(new SQLException("pool exhausted"));
+        // when - condition or the behaviour that we are going to test
+        assertThrows(SQLException.class, () -> limiter.getConnection());
+        // then - verify the output
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+    }
+}
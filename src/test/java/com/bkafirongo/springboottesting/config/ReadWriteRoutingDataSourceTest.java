@@ -0,0 +1,117 @@
+package com.bkafirongo.springboottesting.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica0;
+    @Mock
+    private DataSource replica1;
+    @Mock
+    private Connection connection;
+
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        given(primary.getConnection()).willReturn(connection);
+        given(replica0.getConnection()).willReturn(connection);
+        given(replica1.getConnection()).willReturn(connection);
+        var replicas = new LinkedHashMap<String, DataSource>();
+        replicas.put("replica-0", replica0);
+        replicas.put("replica-1", replica1);
+        dataSource = new ReadWriteRoutingDataSource(primary, replicas, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadWriteRoutingDataSource.clearReadYourWrites();
+        dataSource.close();
+    }
+
+    @DisplayName("JUnit test for read-only transactions balanced over replicas")
+    @Test
+    void givenReadOnlyTransaction_whenGetConnection_thenUseReplicasRoundRobin() throws SQLException {
+        // given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        // when - condition or the behaviour that we are going to test
+        query();
+        query();
+        // then - verify the output
+        verify(replica0, times(1)).getConnection();
+        verify(replica1, times(1)).getConnection();
+    }
+
+    @DisplayName("JUnit test for reads after a write stay on the primary")
+    @Test
+    void givenWrite_whenReadOnlyTransaction_thenUsePrimaryUntilCleared() throws SQLException {
+        // given - precondition or setup
+        query();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        // when - condition or the behaviour that we are going to test
+        query();
+        ReadWriteRoutingDataSource.clearReadYourWrites();
+        query();
+        // then - verify the output
+        // once for the connection defaults, then for the write and the pinned read
+        verify(primary, times(3)).getConnection();
+        verify(replica0, times(1)).getConnection();
+        verify(replica1, never()).getConnection();
+    }
+
+    @DisplayName("JUnit test for failing replica ejected and restored by the health check")
+    @Test
+    void givenFailingReplica_whenGetConnection_thenEjectUntilHealthy() throws SQLException {
+        // given - precondition or setup
+        given(replica0.getConnection()).willThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        // when - condition or the behaviour that we are going to test
+        query();
+        query();
+        // then - verify the output
+        assertThat(dataSource.healthyReplicas()).isEqualTo(1);
+        verify(replica0, times(1)).getConnection();
+        verify(replica1, times(2)).getConnection();
+
+        willReturn(connection).given(replica0).getConnection();
+        given(connection.isValid(anyInt())).willReturn(true);
+        dataSource.checkReplicas();
+        assertThat(dataSource.healthyReplicas()).isEqualTo(2);
+    }
+
+    // the routing decision is taken when the first statement needs a physical connection
+    private void query() throws SQLException {
+        try (var con = dataSource.getConnection()) {
+            con.createStatement();
+        }
+    }
+}
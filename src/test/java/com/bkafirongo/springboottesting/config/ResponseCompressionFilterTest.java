@@ -0,0 +1,104 @@
+package com.bkafirongo.springboottesting.config;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressionFilterTest {
+
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(64, List.of("application/json"), 3);
+
+    @DisplayName("JUnit test for zstd compressing a large JSON response")
+    @Test
+    void givenAcceptZstd_whenLargeJsonResponse_thenCompress() throws Exception {
+        // given - precondition or setup
+        var request = request("gzip, deflate, zstd");
+        var response = new MockHttpServletResponse();
+        var body = "[" + "{\"firstName\":\"John\",\"lastName\":\"Doe\"},".repeat(50) + "{}]";
+        // when - condition or the behaviour that we are going to test
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().flush();
+        });
+        // then - verify the output
+        var compressed = response.getContentAsByteArray();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("zstd");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(compressed.length).isLessThan(body.length() / 4);
+        try (var decompressed = new ZstdInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(decompressed.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+        }
+    }
+
+    @DisplayName("JUnit test for leaving a response below the threshold uncompressed")
+    @Test
+    void givenAcceptZstd_whenSmallResponse_thenSendAsIsWithLength() throws Exception {
+        // given - precondition or setup
+        var request = request("zstd");
+        var response = new MockHttpServletResponse();
+        // when - condition or the behaviour that we are going to test
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.getWriter().write("{\"id\":1}");
+        });
+        // then - verify the output
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLength()).isEqualTo(8);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+
+    @DisplayName("JUnit test for gzip when the client does not accept zstd")
+    @Test
+    void givenZstdRefused_whenLargeResponse_thenGzip() throws Exception {
+        // given - precondition or setup
+        var request = request("gzip, zstd;q=0");
+        var response = new MockHttpServletResponse();
+        var body = "x".repeat(200);
+        // when - condition or the behaviour that we are going to test
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.getWriter().write(body);
+        });
+        // then - verify the output
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (var decompressed = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(new String(decompressed.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+        }
+    }
+
+    @DisplayName("JUnit test for content types that are not compressed")
+    @Test
+    void givenEventStream_whenFlushed_thenPassedThrough() throws Exception {
+        // given - precondition or setup
+        var request = request("zstd");
+        request.setAsyncSupported(true);
+        var response = new MockHttpServletResponse();
+        // when - condition or the behaviour that we are going to test
+        filter.doFilter(request, response, (req, res) -> {
+            req.startAsync();
+            res.setContentType("text/event-stream");
+            res.getOutputStream().write("data: 1\n\n".getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().flush();
+        });
+        // then - verify the output
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("data: 1\n\n");
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        var request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.bkafirongo.springboottesting.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog = new SlowQueryLog(Duration.ofMillis(100), 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.destroy();
+    }
+
+    @DisplayName("JUnit test for statements under the threshold")
+    @Test
+    void givenFastQuery_whenAfterQuery_thenNotRecorded() {
+        // when - condition or the behaviour that we are going to test
+        slowQueryLog.afterQuery(executionInfo(5), List.of(new QueryInfo("select 1")));
+        // then - verify the output
+        assertThat(slowQueryLog.recordedCount()).isZero();
+    }
+
+    @DisplayName("JUnit test for statements above the threshold")
+    @Test
+    void givenSlowQuery_whenAfterQuery_thenRecorded() {
+        // when - condition or the behaviour that we are going to test
+        slowQueryLog.afterQuery(executionInfo(250), List.of(new QueryInfo("select * from employees")));
+        // then - verify the output
+        assertThat(slowQueryLog.recordedCount()).isEqualTo(1);
+        assertThat(slowQueryLog.droppedCount()).isZero();
+    }
+
+    private static ExecutionInfo executionInfo(long elapsedMillis) {
+        var executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+}
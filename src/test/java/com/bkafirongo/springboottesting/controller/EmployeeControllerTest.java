@@ -1,8 +1,14 @@
 package com.bkafirongo.springboottesting.controller;
 
+import com.bkafirongo.springboottesting.exception.PreconditionFailedException;
 import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeBulkResult;
+import com.bkafirongo.springboottesting.model.EmployeePage;
+import com.bkafirongo.springboottesting.model.EmployeeView;
 import com.bkafirongo.springboottesting.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,24 +16,42 @@ import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest
+@WebMvcTest(EmployeeController.class)
 class EmployeeControllerTest {
 
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -68,6 +92,28 @@ class EmployeeControllerTest {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    @DisplayName("JUnit test for bulk create employees")
+    @Test
+    void givenEmployeeList_whenCreateEmployees_thenReturnResultPerItem() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(ArgumentMatchers.anyCollection()))
+                .willReturn(List.of(EmployeeBulkResult.builder()
+                        .index(0)
+                        .id(1L)
+                        .email(employee.getEmail())
+                        .status(EmployeeBulkResult.Status.CREATED)
+                        .build()));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(post("/api/employees/bulk")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(employee))));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")));
+    }
+
     // JUnit test for
     @Test
     void givenEmployeeList_whenGetAllEmployees_thenReturnEmployeeList() throws Exception {
@@ -82,6 +128,169 @@ class EmployeeControllerTest {
                 .andExpect(jsonPath("$.size()", is(1)));
     }
 
+    @DisplayName("JUnit test for get employees by ids")
+    @Test
+    void givenIds_whenGetEmployeesByIds_thenReturnEmployeesInOneCall() throws Exception {
+        // given - precondition or setup
+        var other = Employee.builder().id(2).firstName("Jane").lastName("Doe").email("jane@example.com").build();
+        given(employeeService.getEmployeesByIds(List.of(2L, 1L, 3L)))
+                .willReturn(List.of(other, employee));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees").param("ids", "2,1,3"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[1].id", is(1)));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @DisplayName("JUnit test for get all employees as CBOR")
+    @Test
+    void givenCborAccept_whenGetAllEmployees_thenReturnCborWhileBrowsersGetJson() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees())
+                .willReturn(List.of(employee));
+        // when - condition or the behaviour that we are going to test
+        var cbor = mockMvc.perform(get("/api/employees").accept(APPLICATION_CBOR)).andReturn().getResponse();
+        var browser = mockMvc.perform(get("/api/employees")
+                .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"));
+        // then -verify the output
+        assertThat(cbor.getContentType()).isEqualTo(APPLICATION_CBOR_VALUE);
+        var employees = new CBORMapper().readValue(cbor.getContentAsByteArray(), Employee[].class);
+        assertThat(employees).extracting(Employee::getEmail).containsExactly(employee.getEmail());
+        browser.andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON));
+    }
+
+    @DisplayName("JUnit test for create employee from a Smile request body")
+    @Test
+    void givenSmileBody_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willReturn(employee);
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(post("/api/employees")
+                .contentType(SMILE)
+                .content(new SmileMapper().writeValueAsBytes(employee)));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+        verify(employeeService).saveEmployee(ArgumentMatchers.argThat(saved -> employee.getEmail().equals(saved.getEmail())));
+    }
+
+    @DisplayName("JUnit test for get employees page")
+    @Test
+    void givenEmployeePage_whenGetEmployeesPage_thenReturnPageWithCursor() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeesPage(isNull(), ArgumentMatchers.eq(1)))
+                .willReturn(new EmployeePage<>(List.of(employee), "MQ"));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/page").param("size", "1"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is("MQ")));
+    }
+
+    @DisplayName("JUnit test for get employees page with invalid cursor")
+    @Test
+    void givenInvalidCursor_whenGetEmployeesPage_thenReturn400() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeesPage(ArgumentMatchers.eq("bad"), ArgumentMatchers.anyInt()))
+                .willThrow(new IllegalArgumentException("Invalid cursor : bad"));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/page").param("cursor", "bad"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("JUnit test for search employees with sparse fieldset")
+    @Test
+    void givenFields_whenSearchEmployees_thenReturnOnlyRequestedFields() throws Exception {
+        // given - precondition or setup
+        given(employeeService.searchEmployees("John", "Doe"))
+                .willReturn(List.of(new EmployeeView(1, "John", "Doe", "email@example.com")));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/search")
+                .param("firstName", "John")
+                .param("lastName", "Doe")
+                .param("fields", "email,lastName"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email", is("email@example.com")))
+                .andExpect(jsonPath("$[0].lastName", is("Doe")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$[0].id").doesNotExist());
+    }
+
+    @DisplayName("JUnit test for type-ahead search")
+    @Test
+    void givenQuery_whenSearchEmployeesByPrefix_thenReturnMatches() throws Exception {
+        // given - precondition or setup
+        given(employeeService.searchEmployeesByPrefix("jo", 5))
+                .willReturn(List.of(new EmployeeView(1, "John", "Doe", "email@example.com")));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/search")
+                .param("q", "jo")
+                .param("limit", "5"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName", is("John")));
+    }
+
+    @DisplayName("JUnit test for employee views with all fields")
+    @Test
+    void givenNoFields_whenGetEmployeeViews_thenReturnAllFields() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeeViewsPage(isNull(), ArgumentMatchers.eq(0)))
+                .willReturn(new EmployeePage<>(List.of(new EmployeeView(1, "John", "Doe", "email@example.com")), null));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/views"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[0].firstName", is("John")));
+    }
+
+    @DisplayName("JUnit test for employee views with unknown field")
+    @Test
+    void givenUnknownField_whenGetEmployeeViews_thenReturn400() throws Exception {
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/views").param("fields", "salary"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("JUnit test for streaming all employees as NDJSON")
+    @Test
+    void givenEmployeeList_whenStreamAllEmployees_thenReturnNdjson() throws Exception {
+        // given - precondition or setup
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee);
+            consumer.accept(employee);
+            return null;
+        }).given(employeeService).streamAllEmployees(any());
+        // when - condition or the behaviour that we are going to test
+        var result = mockMvc.perform(get("/api/employees").accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // then -verify the output
+        var line = objectMapper.writeValueAsString(employee);
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
     @DisplayName("JUnit test for get employee by id  | Positive scenario")
     @Test
     void givenEmployeeId_whenGetEmployeeById_thenEmployeeObject() throws Exception {
@@ -96,7 +305,54 @@ class EmployeeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
-                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+                .andExpect(jsonPath("$.email", is(employee.getEmail())))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    @DisplayName("JUnit test for get employee by id with matching If-None-Match")
+    @Test
+    void givenMatchingETag_whenGetEmployeeById_thenReturnNotModified() throws Exception {
+        // given - precondition or setup
+        var employeeId = 1L;
+        employee.setVersion(3);
+        given(employeeService.getEmployeeById(employeeId))
+                .willReturn(Optional.of(employee));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @DisplayName("JUnit test for update employee with stale If-Match")
+    @Test
+    void givenStaleETag_whenUpdateEmployee_thenReturnPreconditionFailed() throws Exception {
+        // given - precondition or setup
+        var employeeId = 1L;
+        given(employeeService.updateEmployee(any(Employee.class), ArgumentMatchers.eq(2L)))
+                .willThrow(new PreconditionFailedException("Employee 1 has been modified since version : 2"));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .content(objectMapper.writeValueAsString(employee))
+                .contentType(APPLICATION_JSON));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @DisplayName("JUnit test for delete employee with unknown If-Match")
+    @Test
+    void givenForeignETag_whenDeleteEmployee_thenReturnPreconditionFailed() throws Exception {
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(delete("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"abc\""));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).deleteEmployee(anyLong(), any());
     }
 
     @DisplayName("JUnit test for get employee by id  | Negative scenario")
@@ -118,10 +374,8 @@ class EmployeeControllerTest {
     void givenEmployeeObject_whenUpdateEmployee_thenEmployeeObject() throws Exception {
         // given - precondition or setup
         var employeeId = 1L;
-        given(employeeService.getEmployeeById(employeeId))
+        given(employeeService.updateEmployee(any(Employee.class), isNull()))
                 .willReturn(Optional.of(employee));
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willReturn(employee);
         // when - condition or the behaviour that we are going to test
         var response = mockMvc.perform(put("/api/employees/{id}", employeeId)
                 .content(objectMapper.writeValueAsString(employee))
@@ -139,7 +393,7 @@ class EmployeeControllerTest {
     void givenEmployeeObject_whenUpdateEmployee_thenReturnNotFound() throws Exception {
         // given - precondition or setup
         var employeeId = 1L;
-        given(employeeService.getEmployeeById(employeeId))
+        given(employeeService.updateEmployee(any(Employee.class), isNull()))
                 .willReturn(Optional.empty());
         // when - condition or the behaviour that we are going to test
         var response = mockMvc.perform(put("/api/employees/{id}", employeeId)
@@ -150,6 +404,39 @@ class EmployeeControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @DisplayName("JUnit test for patch employee | Positive scenario")
+    @Test
+    void givenMergePatch_whenPatchEmployee_thenReturnEmployee() throws Exception {
+        // given - precondition or setup
+        var employeeId = 1L;
+        given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.eq(Map.of("email", "new@example.com")), isNull()))
+                .willReturn(Optional.of(employee));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .content("{\"email\":\"new@example.com\"}")
+                .contentType(EmployeeController.MERGE_PATCH_JSON_VALUE));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is(employee.getFirstName())));
+    }
+
+    @DisplayName("JUnit test for patch employee | Negative scenario")
+    @Test
+    void givenMergePatch_whenPatchEmployee_thenReturnNotFound() throws Exception {
+        // given - precondition or setup
+        var employeeId = 1L;
+        given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), any(), isNull()))
+                .willReturn(Optional.empty());
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .content("{\"email\":\"new@example.com\"}")
+                .contentType(EmployeeController.MERGE_PATCH_JSON_VALUE));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
     // JUnit test for
     @Test
     void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception {
@@ -0,0 +1,107 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.exception.ResourceNotFoundException;
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+import com.bkafirongo.springboottesting.service.EmployeeJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EmployeeJobController.class)
+class EmployeeJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeJobService jobService;
+
+    @DisplayName("JUnit test for submitting a bulk job")
+    @Test
+    void givenJobRequest_whenSubmitJob_thenAcceptedWithLocation() throws Exception {
+        // given - precondition or setup
+        var parameters = Map.of("from", "old.example.com", "to", "example.com");
+        given(jobService.submitJob(EmployeeJob.Type.EMAIL_DOMAIN_REWRITE, parameters))
+                .willReturn(job(5, EmployeeJob.Status.QUEUED));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(post("/api/employees/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"EMAIL_DOMAIN_REWRITE\",\"parameters\":{\"from\":\"old.example.com\",\"to\":\"example.com\"}}"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/employees/jobs/5"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @DisplayName("JUnit test for submitting a CSV import job")
+    @Test
+    void givenCsvUpload_whenSubmitImport_thenAccepted() throws Exception {
+        // given - precondition or setup
+        given(jobService.submitImport(eq(EmployeeTransferFormat.CSV), any()))
+                .willReturn(job(6, EmployeeJob.Status.QUEUED));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(post("/api/employees/jobs/import")
+                .contentType(EmployeeTransferController.TEXT_CSV_VALUE)
+                .content("firstName,lastName,email\nJohn,Doe,john@example.com\n"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(6));
+    }
+
+    @DisplayName("JUnit test for get job by id")
+    @Test
+    void givenUnknownJobId_whenGetJob_thenReturnNotFound() throws Exception {
+        // given - precondition or setup
+        given(jobService.getJob(9L)).willReturn(Optional.empty());
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/jobs/{id}", 9L));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("JUnit test for cancelling a job")
+    @Test
+    void givenRunningJob_whenCancelJob_thenReturnJob() throws Exception {
+        // given - precondition or setup
+        var job = job(5, EmployeeJob.Status.RUNNING);
+        job.setCancelRequested(true);
+        given(jobService.cancelJob(5L)).willReturn(job);
+        given(jobService.cancelJob(9L)).willThrow(new ResourceNotFoundException("No job found for Id : 9"));
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(post("/api/employees/jobs/{id}/cancel", 5L));
+        var missing = mockMvc.perform(post("/api/employees/jobs/{id}/cancel", 9L));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cancelRequested").value(true));
+        missing.andExpect(status().isBadRequest());
+    }
+
+    private static EmployeeJob job(long id, EmployeeJob.Status status) {
+        return EmployeeJob.builder()
+                .id(id)
+                .type(EmployeeJob.Type.EMAIL_DOMAIN_REWRITE)
+                .status(status)
+                .build();
+    }
+}
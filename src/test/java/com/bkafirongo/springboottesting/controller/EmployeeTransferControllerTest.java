@@ -0,0 +1,89 @@
+package com.bkafirongo.springboottesting.controller;
+
+import com.bkafirongo.springboottesting.model.EmployeeImportProgress;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+import com.bkafirongo.springboottesting.service.EmployeeTransferService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmployeeTransferController.class)
+class EmployeeTransferControllerTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(EmployeeTransferController.TEXT_CSV_VALUE);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeTransferService transferService;
+
+    @DisplayName("JUnit test for exporting employees as a CSV attachment")
+    @Test
+    void givenCsvAccept_whenExport_thenStreamCsvAttachment() throws Exception {
+        // given - precondition or setup
+        willAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("id,firstName,lastName,email,version\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(transferService).exportEmployees(eq(EmployeeTransferFormat.CSV), any());
+        // when - condition or the behaviour that we are going to test
+        var result = mockMvc.perform(get("/api/employees/export").accept(TEXT_CSV))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // then -verify the output
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(TEXT_CSV))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.csv\""))
+                .andExpect(content().string("id,firstName,lastName,email,version\n"));
+    }
+
+    @DisplayName("JUnit test for importing NDJSON with streamed progress")
+    @Test
+    void givenNdjsonUpload_whenImport_thenStreamProgressLines() throws Exception {
+        // given - precondition or setup
+        willAnswer(invocation -> {
+            Consumer<EmployeeImportProgress> progress = invocation.getArgument(2);
+            progress.accept(EmployeeImportProgress.builder().processed(500).created(500).errors(List.of()).build());
+            progress.accept(EmployeeImportProgress.builder().processed(600).created(600).errors(List.of()).done(true).build());
+            return null;
+        }).given(transferService).importEmployees(eq(EmployeeTransferFormat.NDJSON), any(), any());
+        // when - condition or the behaviour that we are going to test
+        var result = mockMvc.perform(post("/api/employees/import")
+                        .contentType(APPLICATION_NDJSON)
+                        .content("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john@example.com\"}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // then -verify the output
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"processed\":500,\"created\":500,\"failed\":0,\"errors\":[],\"done\":false,\"message\":null}\n" +
+                        "{\"processed\":600,\"created\":600,\"failed\":0,\"errors\":[],\"done\":true,\"message\":null}\n"));
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
@@ -145,6 +146,26 @@ class EmployeeControllerITest {
                 .andExpect(status().isNotFound());
     }
 
+    @DisplayName("Integration test for patch employee which is not cached")
+    @Test
+    void givenUncachedEmployee_whenPatchEmployee_thenEmployeeObject() throws Exception {
+        // given - precondition or setup
+        var savedEmployee = employeeRepository.save(employee);
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(patch("/api/employees/{id}", savedEmployee.getId())
+                .content("{\"email\":\"jane@example.com\"}")
+                .contentType(APPLICATION_JSON));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
+                .andExpect(jsonPath("$.email", is("jane@example.com")))
+                .andExpect(jsonPath("$.version", is(1)));
+        assertThat(employeeRepository.findById(savedEmployee.getId())).get()
+                .extracting(Employee::getEmail, Employee::getVersion)
+                .containsExactly("jane@example.com", 1L);
+    }
+
     @DisplayName("Integration test for delete employee | Positive scenario")
     @Test
     void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception {
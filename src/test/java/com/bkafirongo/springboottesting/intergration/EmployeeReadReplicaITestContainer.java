@@ -0,0 +1,113 @@
+package com.bkafirongo.springboottesting.intergration;
+
+import com.bkafirongo.springboottesting.config.ReadWriteRoutingDataSource;
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the second container is not replicating; rows written only to it show which database served a read
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@AutoConfigureMockMvc
+class EmployeeReadReplicaITestContainer extends AbstractContainerBaseTest {
+
+    static MySQLContainer REPLICA_CONTAINER;
+
+    static {
+        REPLICA_CONTAINER = new MySQLContainer("mysql:latest")
+                .withPassword("root")
+                .withDatabaseName("employeedb")
+                .withUsername("root");
+        REPLICA_CONTAINER.start();
+    }
+
+    @DynamicPropertySource
+    static void replicaPropertySource(DynamicPropertyRegistry registry) {
+        registry.add("employee.datasource.replicas[0].url", REPLICA_CONTAINER::getJdbcUrl);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.deleteAll();
+        ReadWriteRoutingDataSource.clearReadYourWrites();
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_CONTAINER.getJdbcUrl(),
+                REPLICA_CONTAINER.getUsername(), REPLICA_CONTAINER.getPassword()));
+        replica.execute("create table if not exists employees (id bigint not null primary key, " +
+                "email varchar(255) not null, first_name varchar(255) not null, last_name varchar(255) not null, " +
+                "version bigint not null)");
+        replica.update("delete from employees");
+    }
+
+    @DisplayName("Integration test for read-only search served by the replica")
+    @Test
+    void givenRowOnlyOnReplica_whenSearchEmployees_thenReturnReplicaRow() throws Exception {
+        // given - precondition or setup
+        replica.update("insert into employees (id, email, first_name, last_name, version) values (1, 'replica@example.com', 'John', 'Doe', 0)");
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees/search")
+                .param("firstName", "John")
+                .param("lastName", "Doe"));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email", is("replica@example.com")));
+        assertThat(dataSource.unwrap(ReadWriteRoutingDataSource.class)).isNotNull();
+    }
+
+    @DisplayName("Integration test for writes going to the primary")
+    @Test
+    void givenEmployeeObject_whenCreateEmployee_thenRowOnlyOnPrimary() throws Exception {
+        // given - precondition or setup
+        var employee = Employee.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .email("jane@example.com")
+                .build();
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(post("/api/employees")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isCreated());
+        assertThat(employeeRepository.findByEmail("jane@example.com")).isPresent();
+        assertThat(replica.queryForObject("select count(*) from employees", Integer.class)).isZero();
+    }
+}
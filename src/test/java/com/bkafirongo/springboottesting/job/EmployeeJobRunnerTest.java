@@ -0,0 +1,192 @@
+package com.bkafirongo.springboottesting.job;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import com.bkafirongo.springboottesting.repository.EmployeeJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeJobRunnerTest {
+
+    private static final Instant NOW = Instant.parse("2023-06-01T12:00:00Z");
+    private static final String RUN_TOKEN = "run-1";
+
+    @Mock
+    private EmployeeJobRepository jobRepository;
+    @Mock
+    private EmployeeJobHandler handler;
+    private EmployeeJobProperties properties;
+    private EmployeeJobRunner runner;
+    private EmployeeJob job;
+
+    @BeforeEach
+    void setUp() {
+        given(handler.type()).willReturn(EmployeeJob.Type.EMAIL_DOMAIN_DELETE);
+        properties = new EmployeeJobProperties();
+        runner = new EmployeeJobRunner(jobRepository, List.of(handler), properties);
+        ReflectionTestUtils.setField(runner, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        job = EmployeeJob.builder()
+                .id(7)
+                .type(EmployeeJob.Type.EMAIL_DOMAIN_DELETE)
+                .status(EmployeeJob.Status.QUEUED)
+                .checkpoint(40)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.stop();
+    }
+
+    @DisplayName("JUnit test for dispatching a queued job until it completes")
+    @Test
+    void givenQueuedJob_whenDispatch_thenClaimAndComplete() throws Exception {
+        // given - precondition or setup
+        givenClaimableJob();
+        // when - condition or the behaviour that we are going to test
+        runner.dispatch();
+        // then - verify the output
+        verify(jobRepository, timeout(1000))
+                .finish(eq(7L), anyString(), eq(EmployeeJob.Status.COMPLETED), isNull(), eq(NOW), eq(NOW));
+        verify(handler, times(1)).run(eq(job), any());
+    }
+
+    @DisplayName("JUnit test for cancelling a running job at its next chunk")
+    @Test
+    void givenCancelRequested_whenAwaitNextChunk_thenJobCancelled() throws Exception {
+        // given - precondition or setup
+        givenClaimableJob();
+        given(jobRepository.isCancelRequested(7L)).willReturn(true);
+        willAnswer(invocation -> {
+            invocation.getArgument(1, EmployeeJobContext.class).awaitNextChunk();
+            return null;
+        }).given(handler).run(eq(job), any());
+        // when - condition or the behaviour that we are going to test
+        runner.dispatch();
+        // then - verify the output
+        verify(jobRepository, timeout(1000))
+                .finish(eq(7L), anyString(), eq(EmployeeJob.Status.CANCELLED), eq("Cancelled at checkpoint 40"), eq(NOW), eq(NOW));
+    }
+
+    @DisplayName("JUnit test for a failing job")
+    @Test
+    void givenHandlerThrows_whenDispatch_thenJobFailed() throws Exception {
+        // given - precondition or setup
+        givenClaimableJob();
+        willThrow(new IllegalStateException("boom")).given(handler).run(eq(job), any());
+        // when - condition or the behaviour that we are going to test
+        runner.dispatch();
+        // then - verify the output
+        verify(jobRepository, timeout(1000))
+                .finish(eq(7L), anyString(), eq(EmployeeJob.Status.FAILED), eq("boom"), eq(NOW), eq(NOW));
+    }
+
+    @DisplayName("JUnit test for a job that cannot be loaded giving its slot back")
+    @Test
+    void givenJobLoadFails_whenDispatch_thenFailJobAndFreeSlot() throws Exception {
+        // given - precondition or setup
+        runner.stop();
+        properties.setConcurrency(1);
+        runner = new EmployeeJobRunner(jobRepository, List.of(handler), properties);
+        ReflectionTestUtils.setField(runner, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        given(jobRepository.findClaimable(any(), any())).willReturn(List.of(7L));
+        given(jobRepository.claim(anyLong(), anyString(), any(), any())).willReturn(1);
+        given(jobRepository.findById(7L))
+                .willThrow(new IllegalStateException("down"))
+                .willReturn(Optional.of(job));
+        // when - condition or the behaviour that we are going to test
+        runner.dispatch();
+        verify(jobRepository, timeout(1000))
+                .finish(eq(7L), anyString(), eq(EmployeeJob.Status.FAILED), eq("down"), eq(NOW), eq(NOW));
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (runner.runningJobs() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        runner.dispatch();
+        // then - verify the output
+        verify(jobRepository, timeout(1000))
+                .finish(eq(7L), anyString(), eq(EmployeeJob.Status.COMPLETED), isNull(), eq(NOW), eq(NOW));
+    }
+
+    @DisplayName("JUnit test for shutdown handing a running job back to the queue")
+    @Test
+    void givenStopping_whenAwaitNextChunk_thenJobQueuedAgain() {
+        // given - precondition or setup
+        var context = new EmployeeJobContext(jobRepository, job, RUN_TOKEN, properties.throughput(job.getType()),
+                properties.getLeaseTimeout(), Clock.systemUTC(), () -> true);
+        // when - condition or the behaviour that we are going to test
+        var stopped = assertThrows(EmployeeJobStoppedException.class,
+                context::awaitNextChunk);
+        // then - verify the output
+        assertThat(stopped.getStatus()).isEqualTo(EmployeeJob.Status.QUEUED);
+    }
+
+    @DisplayName("JUnit test for pacing chunks to rows per second")
+    @Test
+    void givenRowsPerSecond_whenAwaitNextChunk_thenWaitForTheChunkBudget() throws InterruptedException {
+        // given - precondition or setup
+        var throughput = new EmployeeJobProperties.Throughput();
+        throughput.setRowsPerSecond(1000);
+        var context = new EmployeeJobContext(jobRepository, job, RUN_TOKEN, throughput,
+                Duration.ofMinutes(2), Clock.systemUTC(), () -> false);
+        given(jobRepository.recordProgress(eq(7L), eq(RUN_TOKEN), anyLong(), anyLong(), anyLong(), any()))
+                .willReturn(1);
+        // when - condition or the behaviour that we are going to test
+        context.awaitNextChunk();
+        long started = System.nanoTime();
+        context.recordChunk(140, 200, 0);
+        context.awaitNextChunk();
+        long waitedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        // then - verify the output
+        assertThat(waitedMillis).isGreaterThanOrEqualTo(190);
+        assertThat(context.checkpoint()).isEqualTo(140);
+        verify(jobRepository, atLeastOnce())
+                .recordProgress(eq(7L), eq(RUN_TOKEN), eq(140L), eq(0L), eq(0L), any());
+    }
+
+    @DisplayName("JUnit test for a run whose lease was taken over by another runner")
+    @Test
+    void givenLeaseLost_whenRecordChunk_thenStopWithoutMovingCheckpoint() {
+        // given - precondition or setup
+        var context = new EmployeeJobContext(jobRepository, job, RUN_TOKEN, properties.throughput(job.getType()),
+                properties.getLeaseTimeout(), Clock.systemUTC(), () -> false);
+        given(jobRepository.recordProgress(eq(7L), eq(RUN_TOKEN), eq(540L), eq(500L), eq(0L), any()))
+                .willReturn(0);
+        // when - condition or the behaviour that we are going to test
+        var stopped = assertThrows(EmployeeJobStoppedException.class,
+                () -> context.recordChunk(540, 500, 0));
+        // then - verify the output
+        assertThat(stopped.getMessage()).isEqualTo("Lease lost at checkpoint 40");
+        assertThat(context.checkpoint()).isEqualTo(40);
+    }
+
+    private void givenClaimableJob() {
+        given(jobRepository.findClaimable(any(), any())).willReturn(List.of(7L));
+        given(jobRepository.claim(anyLong(), anyString(), any(), any())).willReturn(1);
+        given(jobRepository.findById(7L)).willReturn(Optional.of(job));
+    }
+}
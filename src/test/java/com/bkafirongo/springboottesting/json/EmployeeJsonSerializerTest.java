@@ -0,0 +1,37 @@
+package com.bkafirongo.springboottesting.json;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeJsonSerializerTest {
+
+    private final ObjectMapper beanMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper precomputedMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new SimpleModule().addSerializer(new EmployeeJsonSerializer()))
+            .build();
+
+    @DisplayName("JUnit test for precomputed serializer writing the same JSON as the bean serializer")
+    @Test
+    void givenEmployees_whenSerialize_thenSameJsonAsBeanSerializer() throws Exception {
+        // given - precondition or setup
+        var employees = List.of(
+                Employee.builder().id(1).firstName("John").lastName("Doe").email("john@example.com").version(3).build(),
+                Employee.builder().id(Long.MAX_VALUE).firstName("Zoë \"Z\"").lastName("O'Neil\n").build());
+        // when - condition or the behaviour that we are going to test
+        var precomputed = precomputedMapper.writeValueAsString(employees);
+        var bean = beanMapper.writeValueAsString(employees);
+        // then - verify the output
+        assertThat(precomputed).isEqualTo(bean);
+        assertThat(precomputedMapper.readValue(precomputed, Employee[].class))
+                .extracting(Employee::getEmail)
+                .containsExactly("john@example.com", null);
+    }
+}
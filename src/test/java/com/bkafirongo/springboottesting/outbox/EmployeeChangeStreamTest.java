@@ -0,0 +1,123 @@
+package com.bkafirongo.springboottesting.outbox;
+
+import com.bkafirongo.springboottesting.controller.EmployeeChangeController;
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import com.bkafirongo.springboottesting.repository.EmployeeChangeEventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeChangeStreamTest {
+
+    @Mock
+    private EmployeeChangeEventRepository changeEvents;
+
+    private EmployeeChangeStream changeStream;
+    private MockMvc mockMvc;
+
+    @DisplayName("JUnit test for change stream catching up from Last-Event-ID then going live")
+    @Test
+    void givenLastEventId_whenStreamChanges_thenSendBacklogThenLiveEventsOnce() throws Exception {
+        // given - precondition or setup
+        setUp(new SyncTaskExecutor());
+        given(changeEvents.findLastSequence())
+                .willReturn(Optional.of(1L));
+        // the catch-up reads event 2, the next poll reads it again together with event 3 another instance relayed
+        given(changeEvents.findPublishedAfter(1L, PageRequest.ofSize(500)))
+                .willReturn(List.of(event(2, EmployeeChangeEvent.Type.CREATED)))
+                .willReturn(List.of(event(2, EmployeeChangeEvent.Type.CREATED), event(3, EmployeeChangeEvent.Type.DELETED)));
+        // when - condition or the behaviour that we are going to test
+        var result = mockMvc.perform(get("/api/employees/changes")
+                        .header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        changeStream.poll();
+        // then - verify the output
+        var body = result.getResponse().getContentAsString();
+        assertThat(body).containsOnlyOnce("id:2\n");
+        assertThat(body).contains("event:CREATED\n", "id:3\n", "event:DELETED\n", "\"employeeId\":7");
+        assertThat(body.indexOf("id:2\n")).isLessThan(body.indexOf("id:3\n"));
+    }
+
+    @DisplayName("JUnit test for change stream sending on the task executor instead of the polling thread")
+    @Test
+    void givenLiveSubscriber_whenPoll_thenSendOnTaskExecutor() throws Exception {
+        // given - precondition or setup
+        var tasks = new ArrayDeque<Runnable>();
+        setUp(tasks::add);
+        given(changeEvents.findLastSequence())
+                .willReturn(Optional.of(1L));
+        given(changeEvents.findPublishedAfter(1L, PageRequest.ofSize(500)))
+                .willReturn(List.of())
+                .willReturn(List.of(event(2, EmployeeChangeEvent.Type.UPDATED)));
+        var result = mockMvc.perform(get("/api/employees/changes").param("after", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        tasks.poll().run();
+        // when - condition or the behaviour that we are going to test
+        changeStream.poll();
+        var bodyAfterPoll = result.getResponse().getContentAsString();
+        tasks.poll().run();
+        // then - verify the output
+        assertThat(bodyAfterPoll).doesNotContain("id:2\n");
+        assertThat(result.getResponse().getContentAsString()).contains("id:2\n", "event:UPDATED\n");
+        assertThat(tasks).isEmpty();
+    }
+
+    @DisplayName("JUnit test for change stream disconnecting a subscriber its full pool rejects")
+    @Test
+    void givenStreamPoolFull_whenStreamChanges_thenDisconnectSubscriber() throws Exception {
+        // given - precondition or setup
+        setUp(task -> {
+            throw new RejectedExecutionException("Queue full");
+        });
+        given(changeEvents.findLastSequence())
+                .willReturn(Optional.of(1L));
+        // when - condition or the behaviour that we are going to test
+        mockMvc.perform(get("/api/employees/changes").param("after", "1"))
+                .andExpect(request().asyncStarted());
+        changeStream.poll();
+        // then - verify the output
+        verify(changeEvents, never()).findPublishedAfter(anyLong(), any());
+    }
+
+    private void setUp(TaskExecutor taskExecutor) {
+        changeStream = new EmployeeChangeStream(changeEvents, taskExecutor);
+        mockMvc = MockMvcBuilders.standaloneSetup(new EmployeeChangeController(changeStream)).build();
+    }
+
+    private static EmployeeChangeEvent event(long id, EmployeeChangeEvent.Type type) {
+        return EmployeeChangeEvent.builder()
+                .id(id)
+                .type(type)
+                .employeeId(7)
+                .version(id)
+                .createdAt(Instant.parse("2023-06-01T12:00:00Z"))
+                .publishedAt(Instant.parse("2023-06-01T12:00:01Z"))
+                .sequence(id)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.bkafirongo.springboottesting.outbox;
+
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import com.bkafirongo.springboottesting.model.EmployeeOutboxSequence;
+import com.bkafirongo.springboottesting.repository.EmployeeChangeEventRepository;
+import com.bkafirongo.springboottesting.repository.EmployeeOutboxSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeOutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2023-06-01T12:00:00Z");
+
+    @Mock
+    private EmployeeChangeEventRepository changeEvents;
+    @Mock
+    private EmployeeOutboxSequenceRepository sequences;
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    @InjectMocks
+    private EmployeeOutboxRelay relay;
+
+    private final EmployeeOutboxSequence sequence = new EmployeeOutboxSequence(EmployeeOutboxSequence.EMPLOYEE_OUTBOX, 10);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @DisplayName("JUnit test for relaying pending change events")
+    @Test
+    void givenPendingEvents_whenRelay_thenPublishInSequence() {
+        // given - precondition or setup
+        var events = List.of(event(1, NOW.minusSeconds(1)), event(2, NOW));
+        given(sequences.findForUpdate(EmployeeOutboxSequence.EMPLOYEE_OUTBOX))
+                .willReturn(Optional.of(sequence));
+        given(changeEvents.findUnpublished(PageRequest.ofSize(500)))
+                .willReturn(events);
+        // when - condition or the behaviour that we are going to test
+        relay.relay();
+        // then - verify the output
+        assertThat(events).extracting(EmployeeChangeEvent::getSequence).containsExactly(11L, 12L);
+        assertThat(events).extracting(EmployeeChangeEvent::getPublishedAt).containsOnly(NOW);
+        assertThat(sequence.getLastSequence()).isEqualTo(12);
+    }
+
+    @DisplayName("JUnit test for relaying an event that committed after a newer one was published")
+    @Test
+    void givenOlderIdCommittedLate_whenRelay_thenPublishWithLaterSequence() {
+        // given - precondition or setup
+        var newer = event(3, NOW.minusSeconds(30));
+        var older = event(2, NOW.minusSeconds(60));
+        given(sequences.findForUpdate(EmployeeOutboxSequence.EMPLOYEE_OUTBOX))
+                .willReturn(Optional.of(sequence));
+        given(changeEvents.findUnpublished(PageRequest.ofSize(500)))
+                .willReturn(List.of(newer))
+                .willReturn(List.of(older));
+        // when - condition or the behaviour that we are going to test
+        int relayedFirst = relay.relayBatch();
+        int relayedLate = relay.relayBatch();
+        // then - verify the output
+        assertThat(relayedFirst).isEqualTo(1);
+        assertThat(relayedLate).isEqualTo(1);
+        assertThat(older.getSequence()).isGreaterThan(newer.getSequence());
+    }
+
+    @DisplayName("JUnit test for the first relay starting the sequence past existing event ids")
+    @Test
+    void givenNoSequenceYet_whenRelay_thenStartPastLastId() {
+        // given - precondition or setup
+        var event = event(8, NOW);
+        given(sequences.findForUpdate(EmployeeOutboxSequence.EMPLOYEE_OUTBOX))
+                .willReturn(Optional.empty());
+        given(changeEvents.findLastId())
+                .willReturn(Optional.of(8L));
+        given(sequences.saveAndFlush(any(EmployeeOutboxSequence.class)))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        given(changeEvents.findUnpublished(PageRequest.ofSize(500)))
+                .willReturn(List.of(event));
+        // when - condition or the behaviour that we are going to test
+        relay.relayBatch();
+        // then - verify the output
+        assertThat(event.getSequence()).isEqualTo(9);
+    }
+
+    @DisplayName("JUnit test for relay without pending events")
+    @Test
+    void givenNoPendingEvents_whenRelay_thenPublishNothing() {
+        // given - precondition or setup
+        given(sequences.findForUpdate(EmployeeOutboxSequence.EMPLOYEE_OUTBOX))
+                .willReturn(Optional.of(sequence));
+        given(changeEvents.findUnpublished(PageRequest.ofSize(500)))
+                .willReturn(List.of());
+        // when - condition or the behaviour that we are going to test
+        int relayed = relay.relayBatch();
+        // then - verify the output
+        assertThat(relayed).isZero();
+        assertThat(sequence.getLastSequence()).isEqualTo(10);
+    }
+
+    private static EmployeeChangeEvent event(long id, Instant createdAt) {
+        return EmployeeChangeEvent.builder()
+                .id(id)
+                .type(EmployeeChangeEvent.Type.UPDATED)
+                .employeeId(7)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@example.com")
+                .version(id)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong now = new AtomicLong();
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new RateLimitProperties.Concurrency();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setLatencyThreshold(Duration.ofMillis(100));
+        properties.setBackoffRatio(0.5);
+        limiter = new AdaptiveConcurrencyLimiter(properties, now::get);
+    }
+
+    @DisplayName("JUnit test for shedding requests over the limit")
+    @Test
+    void givenLimitReached_whenTryAcquire_thenReject() {
+        // given - precondition or setup
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        // when - condition or the behaviour that we are going to test
+        boolean acquired = limiter.tryAcquire();
+        // then - verify the output
+        assertThat(acquired).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+    }
+
+    @DisplayName("JUnit test for growing the limit while responses are fast")
+    @Test
+    void givenBusyAndFast_whenRelease_thenLimitGrows() {
+        // given - precondition or setup
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire();
+        }
+        // when - condition or the behaviour that we are going to test
+        limiter.release(FAST);
+        // then - verify the output
+        assertThat(limiter.getLimit()).isEqualTo(11);
+    }
+
+    @DisplayName("JUnit test for releasing without a latency sample")
+    @Test
+    void givenStreamingRequest_whenReleaseWithoutSample_thenLimitUnchanged() {
+        // given - precondition or setup
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire();
+        }
+        // when - condition or the behaviour that we are going to test
+        limiter.release();
+        // then - verify the output
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isEqualTo(5);
+    }
+
+    @DisplayName("JUnit test for backing off once per period when responses are slow")
+    @Test
+    void givenSlowResponses_whenRelease_thenLimitShrinksOncePerPeriod() {
+        // given - precondition or setup
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+        }
+        // when - condition or the behaviour that we are going to test
+        limiter.release(SLOW);
+        limiter.release(SLOW);
+        int afterBurst = limiter.getLimit();
+        now.addAndGet(SLOW);
+        limiter.release(SLOW);
+        // then - verify the output
+        assertThat(afterBurst).isEqualTo(5);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
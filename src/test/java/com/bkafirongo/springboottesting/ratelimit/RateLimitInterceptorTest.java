@@ -0,0 +1,159 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import com.bkafirongo.springboottesting.controller.EmployeeController;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = EmployeeController.class, properties = {
+        "employee.rate-limit.endpoints.getAllEmployees.requests-per-second=0.1",
+        "employee.rate-limit.endpoints.getAllEmployees.burst=2",
+        "employee.rate-limit.trusted-proxies=127.0.0.1"
+})
+class RateLimitInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private ClientRateLimiter rateLimiter;
+
+    @Autowired
+    private EmployeeController employeeController;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @DisplayName("JUnit test for rate limiting a client per endpoint")
+    @Test
+    void givenClientOverEndpointRate_whenGetAllEmployees_thenReturn429() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees()).willReturn(List.of());
+        mockMvc.perform(get("/api/employees").header("X-Client-Id", "greedy"));
+        mockMvc.perform(get("/api/employees").header("X-Client-Id", "greedy"));
+        // when - condition or the behaviour that we are going to test
+        var limited = mockMvc.perform(get("/api/employees").header("X-Client-Id", "greedy"));
+        var otherClient = mockMvc.perform(get("/api/employees").header("X-Client-Id", "polite"));
+        // then -verify the output
+        limited.andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+        otherClient.andExpect(status().isOk());
+    }
+
+    @DisplayName("JUnit test for shedding load over the concurrency limit")
+    @Test
+    void givenConcurrencyLimitReached_whenGetEmployee_thenReturn503() throws Exception {
+        // given - precondition or setup
+        int acquired = 0;
+        while (concurrencyLimiter.tryAcquire()) {
+            acquired++;
+        }
+        try {
+            // when - condition or the behaviour that we are going to test
+            var response = mockMvc.perform(get("/api/employees/{id}", 1L));
+            // then -verify the output
+            response.andDo(print())
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            for (int i = 0; i < acquired; i++) {
+                concurrencyLimiter.release(0);
+            }
+        }
+    }
+
+    @DisplayName("JUnit test for ignoring the client header from an untrusted address")
+    @Test
+    void givenUntrustedAddress_whenGetAllEmployeesWithChangingClientIds_thenReturn429() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees()).willReturn(List.of());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/employees").header("X-Client-Id", "fresh-" + i).with(remoteAddress("10.0.0.9")));
+        }
+        // when - condition or the behaviour that we are going to test
+        var response = mockMvc.perform(get("/api/employees").header("X-Client-Id", "fresh-2").with(remoteAddress("10.0.0.9")));
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @DisplayName("JUnit test for holding the concurrency permit until an async request completes")
+    @Test
+    void givenAsyncRequest_whenHandlerReturns_thenReleasePermitOnCompletion() throws Exception {
+        // given - precondition or setup
+        var interceptor = new RateLimitInterceptor(properties, rateLimiter, concurrencyLimiter);
+        var handler = new HandlerMethod(employeeController, EmployeeController.class.getDeclaredMethod("getEmployeeById", Long.class));
+        var request = new MockHttpServletRequest("GET", "/api/employees/1");
+        request.setAsyncSupported(true);
+        var response = new MockHttpServletResponse();
+        int inFlight = concurrencyLimiter.getInFlight();
+        assertThat(interceptor.preHandle(request, response, handler)).isTrue();
+        request.startAsync();
+        // when - condition or the behaviour that we are going to test
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+        int whileStreaming = concurrencyLimiter.getInFlight();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        interceptor.afterCompletion(request, response, handler, null);
+        // then -verify the output
+        assertThat(whileStreaming).isEqualTo(inFlight + 1);
+        assertThat(concurrencyLimiter.getInFlight()).isEqualTo(inFlight);
+    }
+
+    @DisplayName("JUnit test for keeping slow async requests out of the latency sample")
+    @Test
+    void givenSlowAsyncRequest_whenCompleted_thenLimitUnchanged() throws Exception {
+        // given - precondition or setup
+        var concurrency = new RateLimitProperties.Concurrency();
+        concurrency.setLatencyThreshold(Duration.ofNanos(1));
+        var limiter = new AdaptiveConcurrencyLimiter(concurrency, System::nanoTime);
+        var interceptor = new RateLimitInterceptor(properties, rateLimiter, limiter);
+        var handler = new HandlerMethod(employeeController, EmployeeController.class.getDeclaredMethod("streamAllEmployees"));
+        var request = new MockHttpServletRequest("GET", "/api/employees");
+        request.setAsyncSupported(true);
+        var response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request, response, handler)).isTrue();
+        request.startAsync();
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+        Thread.sleep(1);
+        // when - condition or the behaviour that we are going to test
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        interceptor.afterCompletion(request, response, handler, null);
+        // then -verify the output
+        assertThat(limiter.getLimit()).isEqualTo(concurrency.getInitialLimit());
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
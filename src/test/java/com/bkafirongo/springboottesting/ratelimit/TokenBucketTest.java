@@ -0,0 +1,55 @@
+package com.bkafirongo.springboottesting.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @DisplayName("JUnit test for token bucket burst and refill")
+    @Test
+    void givenFullBucket_whenBurstExhausted_thenRejectUntilRefilled() {
+        // given - precondition or setup
+        var bucket = new TokenBucket(10, 3, 0);
+        // when - condition or the behaviour that we are going to test
+        long first = bucket.tryAcquire(0);
+        long second = bucket.tryAcquire(0);
+        long third = bucket.tryAcquire(0);
+        long rejected = bucket.tryAcquire(0);
+        long afterRefill = bucket.tryAcquire(SECOND / 10);
+        // then - verify the output
+        assertThat(first + second + third).isZero();
+        assertThat(rejected).isEqualTo(SECOND / 10);
+        assertThat(afterRefill).isZero();
+        assertThat(bucket.availablePermits(SECOND / 10)).isZero();
+        assertThat(bucket.availablePermits(10 * SECOND)).isEqualTo(3);
+    }
+
+    @DisplayName("JUnit test for token bucket shared by concurrent requests")
+    @Test
+    void givenConcurrentRequests_whenTryAcquire_thenGrantExactlyTheBurst() throws InterruptedException {
+        // given - precondition or setup
+        var bucket = new TokenBucket(1, 100, 0);
+        var granted = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(8);
+        // when - condition or the behaviour that we are going to test
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (bucket.tryAcquire(0) == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        // then - verify the output
+        assertThat(granted).hasValue(100);
+    }
+}
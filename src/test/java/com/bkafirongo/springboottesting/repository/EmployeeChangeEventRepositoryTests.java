@@ -0,0 +1,60 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class EmployeeChangeEventRepositoryTests {
+
+    @Autowired
+    private EmployeeChangeEventRepository changeEvents;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        changeEvents.deleteAll();
+        employee = Employee
+                .builder()
+                .id(7)
+                .firstName("John")
+                .lastName("Doe")
+                .email("email@example.com")
+                .version(1)
+                .build();
+    }
+
+    @DisplayName("JUnit test for appending and publishing change events")
+    @Test
+    void givenAppendedEvents_whenPublished_thenReadableAfterSequence() {
+        // given - precondition or setup
+        changeEvents.append(EmployeeChangeEvent.Type.UPDATED, employee);
+        changeEvents.appendDeleted(employee.getId(), null);
+        var pending = changeEvents.findUnpublished(PageRequest.ofSize(10));
+        // when - condition or the behaviour that we are going to test
+        pending.get(1).setSequence(5L);
+        pending.get(1).setPublishedAt(Instant.now());
+        changeEvents.flush();
+        var published = changeEvents.findPublishedAfter(4, PageRequest.ofSize(10));
+        // then - verify the output
+        assertThat(pending).extracting(EmployeeChangeEvent::getType)
+                .containsExactly(EmployeeChangeEvent.Type.UPDATED, EmployeeChangeEvent.Type.DELETED);
+        assertThat(pending.get(1).getEmail()).isNull();
+        assertThat(published).extracting(EmployeeChangeEvent::getType).containsExactly(EmployeeChangeEvent.Type.DELETED);
+        assertThat(changeEvents.findPublishedAfter(5, PageRequest.ofSize(10))).isEmpty();
+        assertThat(changeEvents.findLastSequence()).contains(5L);
+        assertThat(changeEvents.findLastId()).contains(pending.get(1).getId());
+        assertThat(changeEvents.findUnpublished(PageRequest.ofSize(10))).extracting(EmployeeChangeEvent::getType)
+                .containsExactly(EmployeeChangeEvent.Type.UPDATED);
+    }
+}
@@ -0,0 +1,110 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.EmployeeJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class EmployeeJobRepositoryTests {
+
+    private static final Instant NOW = Instant.parse("2023-06-01T12:00:00Z");
+
+    @Autowired
+    private EmployeeJobRepository jobRepository;
+
+    private EmployeeJob job;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository.deleteAll();
+        job = jobRepository.save(EmployeeJob.builder()
+                .type(EmployeeJob.Type.EMAIL_DOMAIN_DELETE)
+                .status(EmployeeJob.Status.QUEUED)
+                .parameters(Map.of("domain", "old.example.com"))
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build());
+    }
+
+    @DisplayName("JUnit test for claiming a queued job once")
+    @Test
+    void givenQueuedJob_whenClaim_thenOnlyFirstClaimWins() {
+        // given - precondition or setup
+        var staleBefore = NOW.minusSeconds(120);
+        // when - condition or the behaviour that we are going to test
+        var claimable = jobRepository.findClaimable(staleBefore, PageRequest.ofSize(10));
+        int first = jobRepository.claim(job.getId(), "run-1", NOW, staleBefore);
+        int second = jobRepository.claim(job.getId(), "run-2", NOW, staleBefore);
+        // then - verify the output
+        assertThat(claimable).containsExactly(job.getId());
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(jobRepository.findById(job.getId())).get()
+                .satisfies(claimed -> {
+                    assertThat(claimed.getStatus()).isEqualTo(EmployeeJob.Status.RUNNING);
+                    assertThat(claimed.getParameters()).containsEntry("domain", "old.example.com");
+                });
+    }
+
+    @DisplayName("JUnit test for reclaiming a running job whose lease expired")
+    @Test
+    void givenRunningJobWithoutHeartbeat_whenClaimAfterLease_thenResumeFromCheckpoint() {
+        // given - precondition or setup
+        jobRepository.claim(job.getId(), "run-1", NOW, NOW);
+        jobRepository.recordProgress(job.getId(), "run-1", 500, 500, 0, NOW);
+        // when - condition or the behaviour that we are going to test
+        int beforeLease = jobRepository.claim(job.getId(), "run-2", NOW.plusSeconds(60), NOW);
+        int afterLease = jobRepository.claim(job.getId(), "run-2", NOW.plusSeconds(180), NOW.plusSeconds(60));
+        // then - verify the output
+        assertThat(beforeLease).isZero();
+        assertThat(afterLease).isEqualTo(1);
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getCheckpoint()).isEqualTo(500);
+    }
+
+    @DisplayName("JUnit test for a slow runner whose lease was taken over")
+    @Test
+    void givenJobReclaimed_whenPreviousRunRecordsProgress_thenRejected() {
+        // given - precondition or setup
+        jobRepository.claim(job.getId(), "run-1", NOW, NOW);
+        jobRepository.claim(job.getId(), "run-2", NOW.plusSeconds(180), NOW.plusSeconds(60));
+        // when - condition or the behaviour that we are going to test
+        int staleProgress = jobRepository.recordProgress(job.getId(), "run-1", 500, 500, 0, NOW.plusSeconds(181));
+        int staleFinish = jobRepository.finish(job.getId(), "run-1", EmployeeJob.Status.COMPLETED, null,
+                NOW.plusSeconds(181), NOW.plusSeconds(181));
+        int progress = jobRepository.recordProgress(job.getId(), "run-2", 200, 200, 0, NOW.plusSeconds(182));
+        // then - verify the output
+        assertThat(staleProgress).isZero();
+        assertThat(staleFinish).isZero();
+        assertThat(progress).isEqualTo(1);
+        assertThat(jobRepository.findById(job.getId())).get()
+                .satisfies(running -> {
+                    assertThat(running.getStatus()).isEqualTo(EmployeeJob.Status.RUNNING);
+                    assertThat(running.getCheckpoint()).isEqualTo(200);
+                });
+    }
+
+    @DisplayName("JUnit test for cancelling and resuming a job")
+    @Test
+    void givenQueuedJob_whenCancelAndResume_thenQueuedAgain() {
+        // given - precondition or setup
+        int cancelled = jobRepository.requestCancel(job.getId(), NOW);
+        var afterCancel = jobRepository.findById(job.getId()).orElseThrow().getStatus();
+        // when - condition or the behaviour that we are going to test
+        int resumed = jobRepository.resume(job.getId(), NOW);
+        // then - verify the output
+        assertThat(cancelled).isEqualTo(1);
+        assertThat(afterCancel).isEqualTo(EmployeeJob.Status.CANCELLED);
+        assertThat(resumed).isEqualTo(1);
+        assertThat(jobRepository.isCancelRequested(job.getId())).isFalse();
+        assertThat(jobRepository.resume(job.getId(), NOW)).isZero();
+    }
+}
@@ -0,0 +1,62 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.job.EmployeeJobProperties;
+import com.bkafirongo.springboottesting.job.EmployeeJobUploads;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class EmployeeJobUploadRepositoryTests {
+
+    @Autowired
+    private EmployeeJobUploadRepository uploadRepository;
+
+    private EmployeeJobUploads uploads;
+
+    @BeforeEach
+    void setUp() {
+        uploadRepository.deleteAll();
+        var properties = new EmployeeJobProperties();
+        properties.setUploadPartSize(DataSize.ofBytes(4));
+        uploads = new EmployeeJobUploads(uploadRepository, properties);
+    }
+
+    @DisplayName("JUnit test for storing an import upload in parts and reading it back")
+    @Test
+    void givenUploadLargerThanPart_whenStoreAndOpen_thenReadBackWholeUpload() throws Exception {
+        // given - precondition or setup
+        var csv = "firstName,lastName,email\nJohn,Cena,john@gmail.com\n";
+        // when - condition or the behaviour that we are going to test
+        var uploadId = uploads.store(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        byte[] read;
+        try (var input = uploads.open(uploadId)) {
+            read = input.readAllBytes();
+        }
+        // then - verify the output
+        assertThat(uploadRepository.count()).isEqualTo(csv.length() / 4 + 1);
+        assertThat(new String(read, StandardCharsets.UTF_8)).isEqualTo(csv);
+        assertThat(uploads.exists(uploadId)).isTrue();
+    }
+
+    @DisplayName("JUnit test for deleting an import upload")
+    @Test
+    void givenStoredUpload_whenDelete_thenNoLongerExists() throws Exception {
+        // given - precondition or setup
+        var uploadId = uploads.store(new ByteArrayInputStream("John,Cena".getBytes(StandardCharsets.UTF_8)));
+        var other = uploads.store(new ByteArrayInputStream(new byte[0]));
+        // when - condition or the behaviour that we are going to test
+        uploads.delete(uploadId);
+        // then - verify the output
+        assertThat(uploads.exists(uploadId)).isFalse();
+        assertThat(uploads.exists(other)).isTrue();
+    }
+}
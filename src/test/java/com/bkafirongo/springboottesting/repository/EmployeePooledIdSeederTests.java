@@ -0,0 +1,53 @@
+package com.bkafirongo.springboottesting.repository;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "employee.id.strategy=pooled")
+@Import(EmployeePooledIdSeeder.class)
+// the table generator reserves blocks on its own connection, which would wait for the test transaction's lock
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeePooledIdSeederTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeePooledIdSeeder seeder;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @DisplayName("JUnit test for pooled ids after switching from identity")
+    @Test
+    void givenRowsInsertedWithIdentity_whenSeedAndSaveEmployee_thenIdAboveExistingIds() {
+        // given - precondition or setup
+        jdbcTemplate.update("insert into employees (id, first_name, last_name, email, version) values (1000, 'John', 'Cena', 'cena@gmail.com', 0)");
+        // when - condition or the behaviour that we are going to test
+        seeder.seed();
+        // seeding twice must not move the block back
+        seeder.seed();
+        var saved = employeeRepository.saveAndFlush(Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tony@gmail.com")
+                .build());
+        // then - verify the output
+        assertThat(saved.getId()).isBetween(1001L, 1000L + Employee.POOLED_ALLOCATION_SIZE);
+    }
+}
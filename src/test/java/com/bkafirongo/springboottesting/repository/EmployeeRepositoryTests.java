@@ -1,16 +1,23 @@
 package com.bkafirongo.springboottesting.repository;
 
 import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 class EmployeeRepositoryTests {
@@ -18,6 +25,9 @@ class EmployeeRepositoryTests {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Employee employee;
 
     @BeforeEach
@@ -166,6 +176,94 @@ class EmployeeRepositoryTests {
         assertThat(savedEmp).isNotNull();
     }
 
+    @DisplayName("JUnit test for batch insert and existing email lookup")
+    @Test
+    void givenEmployeeList_whenBatchInsert_thenAssignIdsAndFindExistingEmails() {
+        // given - precondition or setup
+        Employee employee2 = getEmployee("jane@employee.com", "Jane", "Doe");
+        // when - condition or the behaviour that we are going to test
+        List<Employee> inserted = employeeRepository.batchInsert(List.of(employee, employee2));
+        // then -verify the output
+        assertThat(inserted).allSatisfy(e -> assertThat(e.getId()).isPositive());
+        assertThat(employeeRepository.findExistingEmails(List.of("jane@employee.com", "unknown@employee.com")))
+                .containsExactly("jane@employee.com");
+    }
+
+    @DisplayName("JUnit test for projection queries")
+    @Test
+    void givenEmployees_whenFindViews_thenReturnProjections() {
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(getEmployee("jane@employee.com", "Jane", "Doe"));
+        // when - condition or the behaviour that we are going to test
+        var page = employeeRepository.findNextViewPage(0L, PageRequest.ofSize(10));
+        var found = employeeRepository.findViewsByName("John", "Doe");
+        // then -verify the output
+        assertThat(page).hasSize(2);
+        assertThat(found).extracting(EmployeeView::email).containsExactly("email@example.com");
+    }
+
+    @DisplayName("JUnit test for single statement update and delete")
+    @Test
+    void givenEmployee_whenUpdateByIdAndDeleteById_thenReturnAffectedRows() {
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        // when - condition or the behaviour that we are going to test
+        int updated = employeeRepository.updateById(employee.getId(), "Jane", "Smith", "jane@example.com");
+        int missing = employeeRepository.updateById(employee.getId() + 1, "Jane", "Smith", "jane@example.com");
+        var updatedEmployee = employeeRepository.findById(employee.getId());
+        int deleted = employeeRepository.deleteEmployeeById(employee.getId());
+        // then -verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(updatedEmployee).get().extracting(Employee::getFirstName).isEqualTo("Jane");
+        assertThat(deleted).isEqualTo(1);
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
+
+    @DisplayName("JUnit test for optimistic update")
+    @Test
+    void givenVersion_whenUpdateByIdAndVersion_thenOnlyCurrentVersionIsWritten() {
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        long version = employee.getVersion();
+        // when - condition or the behaviour that we are going to test
+        int updated = employeeRepository.updateByIdAndVersion(employee.getId(), version, "Jane", "Smith", "jane@example.com");
+        int stale = employeeRepository.updateByIdAndVersion(employee.getId(), version, "Joe", "Smith", "joe@example.com");
+        // then -verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isZero();
+        assertThat(employeeRepository.findVersionById(employee.getId())).contains(version + 1);
+        assertThat(employeeRepository.deleteEmployeeByIdAndVersion(employee.getId(), version)).isZero();
+        assertThat(employeeRepository.deleteEmployeeByIdAndVersion(employee.getId(), version + 1)).isEqualTo(1);
+    }
+
+    @DisplayName("JUnit test for partial update")
+    @Test
+    void givenEmployee_whenPatchById_thenUpdateOnlyGivenColumns() {
+        // given - precondition or setup
+        // flushed explicitly, with a non-identity id strategy the insert would otherwise still be pending
+        employeeRepository.saveAndFlush(employee);
+        // when - condition or the behaviour that we are going to test
+        int updated = employeeRepository.patchById(employee.getId(), employee.getVersion(), Map.of("email", "new@example.com"));
+        entityManager.clear();
+        var patchedEmployee = employeeRepository.findById(employee.getId()).orElseThrow();
+        // then -verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(patchedEmployee.getEmail()).isEqualTo("new@example.com");
+        assertThat(patchedEmployee.getFirstName()).isEqualTo(employee.getFirstName());
+    }
+
+    @DisplayName("JUnit test for unique email constraint")
+    @Test
+    void givenExistingEmail_whenSave_thenThrowDataIntegrityViolation() {
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Employee duplicate = getEmployee("email@example.com", "Jane", "Doe");
+        // when - condition or the behaviour that we are going to test
+        assertThrows(DataIntegrityViolationException.class, () -> employeeRepository.saveAndFlush(duplicate));
+    }
+
     Employee getEmployee(String email, String firstname, String lastName) {
         return Employee
                 .builder()
@@ -175,4 +273,33 @@ class EmployeeRepositoryTests {
                 .build();
     }
 
+
+    @DisplayName("JUnit test for exporting all employees from a forward-only result set")
+    @Test
+    void givenEmployees_whenExportAll_thenConsumeEachRowInIdOrder() {
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        employeeRepository.saveAndFlush(Employee.builder().firstName("Jane").lastName("Doe").email("jane@example.com").build());
+        var exported = new ArrayList<Employee>();
+        // when - condition or the behaviour that we are going to test
+        employeeRepository.exportAll(exported::add);
+        // then - verify the output
+        assertThat(exported).extracting(Employee::getEmail).containsExactly("email@example.com", "jane@example.com");
+        assertThat(exported.get(0).getId()).isLessThan(exported.get(1).getId());
+    }
+
+    @DisplayName("JUnit test for streaming all employees as entities")
+    @Test
+    void givenEmployees_whenStreamAll_thenReturnEachRowInIdOrder() {
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        employeeRepository.saveAndFlush(Employee.builder().firstName("Jane").lastName("Doe").email("jane@example.com").build());
+        List<String> streamed;
+        // when - condition or the behaviour that we are going to test
+        try (var employees = employeeRepository.streamAll()) {
+            streamed = employees.map(Employee::getEmail).toList();
+        }
+        // then - verify the output
+        assertThat(streamed).containsExactly("email@example.com", "jane@example.com");
+    }
 }
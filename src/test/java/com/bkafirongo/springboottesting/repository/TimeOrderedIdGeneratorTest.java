@@ -0,0 +1,74 @@
+package com.bkafirongo.springboottesting.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeOrderedIdGeneratorTest {
+
+    @DisplayName("JUnit test for ids within one millisecond")
+    @Test
+    void givenSameMillisecond_whenNextId_thenIncreaseSequence() {
+        // given - precondition or setup
+        var now = TimeOrderedIdGenerator.EPOCH + 1_000;
+        var generator = new TimeOrderedIdGenerator(() -> now, 3);
+        // when - condition or the behaviour that we are going to test
+        long first = generator.nextId();
+        long second = generator.nextId();
+        // then - verify the output
+        assertThat(second).isEqualTo(first + 1);
+        assertThat(first >>> 22).isEqualTo(1_000);
+        assertThat((first >>> 12) & TimeOrderedIdGenerator.MAX_NODE).isEqualTo(3);
+    }
+
+    @DisplayName("JUnit test for exhausted sequence")
+    @Test
+    void givenExhaustedSequence_whenNextId_thenWaitForNextMillisecond() {
+        // given - precondition or setup
+        var now = TimeOrderedIdGenerator.EPOCH + 1_000;
+        var reads = new AtomicLong();
+        var generator = new TimeOrderedIdGenerator(
+                () -> reads.incrementAndGet() <= TimeOrderedIdGenerator.MAX_SEQUENCE + 2 ? now : now + 1, 0);
+        long last = -1;
+        for (int i = 0; i <= TimeOrderedIdGenerator.MAX_SEQUENCE; i++) {
+            last = generator.nextId();
+        }
+        // when - condition or the behaviour that we are going to test
+        long next = generator.nextId();
+        // then - verify the output
+        assertThat(next).isGreaterThan(last);
+        assertThat(next >>> 22).isEqualTo(1_001);
+    }
+
+    @DisplayName("JUnit test for clock going backwards")
+    @Test
+    void givenClockGoingBackwards_whenNextId_thenKeepIncreasing() {
+        // given - precondition or setup
+        var clock = new AtomicLong(TimeOrderedIdGenerator.EPOCH + 1_000);
+        var generator = new TimeOrderedIdGenerator(clock::get, 0);
+        long first = generator.nextId();
+        clock.addAndGet(-10);
+        // when - condition or the behaviour that we are going to test
+        long second = generator.nextId();
+        // then - verify the output
+        assertThat(second).isEqualTo(first + 1);
+    }
+
+    @DisplayName("JUnit test for node id out of range")
+    @Test
+    void givenNodeOutOfRange_whenCreateGenerator_thenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(System::currentTimeMillis, 1024));
+    }
+
+    @DisplayName("JUnit test for node id not configured")
+    @Test
+    void givenNodeNotSet_whenParseNode_thenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.parseNode(null));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.parseNode(""));
+        assertThat(TimeOrderedIdGenerator.parseNode("7")).isEqualTo(7);
+    }
+}
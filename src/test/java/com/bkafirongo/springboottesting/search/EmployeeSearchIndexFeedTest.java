@@ -0,0 +1,63 @@
+package com.bkafirongo.springboottesting.search;
+
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import com.bkafirongo.springboottesting.repository.EmployeeChangeEventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSearchIndexFeedTest {
+
+    @Mock
+    private EmployeeChangeEventRepository changeEvents;
+    @Spy
+    private EmployeeSearchIndex searchIndex = new EmployeeSearchIndex();
+    @InjectMocks
+    private EmployeeSearchIndexFeed searchIndexFeed;
+
+    @DisplayName("JUnit test for search index feed applying changes made through other instances")
+    @Test
+    void givenPublishedChanges_whenPoll_thenIndexAndRemove() {
+        // given - precondition or setup
+        searchIndex.index(new EmployeeView(8, "Jane", "Doe", "jane@example.com"));
+        given(changeEvents.findLastSequence())
+                .willReturn(Optional.of(10L));
+        given(changeEvents.findPublishedAfter(10L, PageRequest.ofSize(500)))
+                .willReturn(List.of(event(11, EmployeeChangeEvent.Type.CREATED, 7), event(12, EmployeeChangeEvent.Type.DELETED, 8)));
+        given(changeEvents.findPublishedAfter(12L, PageRequest.ofSize(500)))
+                .willReturn(List.of());
+        // when - condition or the behaviour that we are going to test
+        searchIndexFeed.poll();
+        searchIndexFeed.poll();
+        // then - verify the output
+        assertThat(searchIndex.search("john", 10)).extracting(EmployeeView::id).containsExactly(7L);
+        assertThat(searchIndex.search("jane", 10)).isEmpty();
+    }
+
+    private static EmployeeChangeEvent event(long sequence, EmployeeChangeEvent.Type type, long employeeId) {
+        var event = EmployeeChangeEvent.builder()
+                .id(sequence)
+                .type(type)
+                .employeeId(employeeId)
+                .createdAt(Instant.parse("2023-06-01T12:00:00Z"))
+                .sequence(sequence);
+        if (type != EmployeeChangeEvent.Type.DELETED) {
+            event.firstName("John").lastName("Doe").email("john@example.com").version(1L);
+        }
+        return event.build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.bkafirongo.springboottesting.search;
+
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeSearchIndexTest {
+
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new EmployeeSearchIndex();
+        searchIndex.index(new EmployeeView(1, "John", "Doe", "john.doe@example.com"));
+        searchIndex.index(new EmployeeView(2, "Joan", "Smith", "joan@corp.org"));
+        searchIndex.index(new EmployeeView(3, "Mary", "Johnson", "mary.j@example.com"));
+    }
+
+    @DisplayName("JUnit test for prefix search on names")
+    @Test
+    void givenPrefix_whenSearch_thenReturnMatchingEmployees() {
+        // when - condition or the behaviour that we are going to test
+        var results = searchIndex.search("Jo", 10);
+        // then - verify the output
+        assertThat(results).extracting(EmployeeView::id).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @DisplayName("JUnit test for search with several words")
+    @Test
+    void givenSeveralWords_whenSearch_thenEveryWordMustMatch() {
+        // when - condition or the behaviour that we are going to test
+        var byName = searchIndex.search("jo sm", 10);
+        var byEmail = searchIndex.search("mary.j@exa", 10);
+        // then - verify the output
+        assertThat(byName).extracting(EmployeeView::id).containsExactly(2L);
+        assertThat(byEmail).extracting(EmployeeView::id).containsExactly(3L);
+    }
+
+    @DisplayName("JUnit test for search after update and remove")
+    @Test
+    void givenUpdatedAndRemovedEmployees_whenSearch_thenIndexIsCurrent() {
+        // given - precondition or setup
+        searchIndex.index(new EmployeeView(1, "Jack", "Doe", "jack@example.com"));
+        searchIndex.remove(2);
+        // when - condition or the behaviour that we are going to test
+        var results = searchIndex.search("jo", 10);
+        // then - verify the output
+        assertThat(results).extracting(EmployeeView::id).containsExactly(3L);
+        assertThat(searchIndex.search("jack", 10)).extracting(EmployeeView::email).containsExactly("jack@example.com");
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @DisplayName("JUnit test for search limit and blank query")
+    @Test
+    void givenLimit_whenSearch_thenReturnAtMostLimit() {
+        // when - condition or the behaviour that we are going to test
+        var limited = searchIndex.search("j", 2);
+        var blank = searchIndex.search(" . ", 10);
+        // then - verify the output
+        assertThat(limited).hasSize(2);
+        assertThat(blank).isEmpty();
+    }
+
+    @DisplayName("JUnit test for a load not bringing back employees removed while it runs")
+    @Test
+    void givenRemovedDuringLoad_whenIndexIfAbsent_thenStayRemoved() {
+        // given - precondition or setup
+        searchIndex.startLoad();
+        searchIndex.remove(4);
+        searchIndex.index(new EmployeeView(5, "Jim", "Beam", "jim@example.com"));
+        // when - condition or the behaviour that we are going to test
+        searchIndex.indexIfAbsent(new EmployeeView(4, "Jill", "Deleted", "jill@example.com"));
+        searchIndex.indexIfAbsent(new EmployeeView(5, "Jim", "Stale", "jim.stale@example.com"));
+        searchIndex.indexIfAbsent(new EmployeeView(6, "Jake", "Loaded", "jake@example.com"));
+        searchIndex.finishLoad();
+        // then - verify the output
+        assertThat(searchIndex.search("jill", 10)).isEmpty();
+        assertThat(searchIndex.search("jim", 10)).extracting(EmployeeView::lastName).containsExactly("Beam");
+        assertThat(searchIndex.search("jake", 10)).extracting(EmployeeView::id).containsExactly(6L);
+    }
+
+    @DisplayName("JUnit test for search walking the rarest word among many near-matches")
+    @Test
+    void givenManyNearMatches_whenSearch_thenDriveFromRarestWord() {
+        // given - precondition or setup
+        for (long id = 100; id < 10_100; id++) {
+            searchIndex.index(new EmployeeView(id, "John", "Smith" + id, "john" + id + "@example.com"));
+        }
+        searchIndex.index(new EmployeeView(20_000, "Johnny", "Zzyzx", "jz@example.com"));
+        // when - condition or the behaviour that we are going to test
+        var driver = searchIndex.rarest(EmployeeSearchIndex.terms("john zz"));
+        var results = searchIndex.search("john zz", 10);
+        var none = searchIndex.search("john qq", 10);
+        // then - verify the output
+        assertThat(driver).isEqualTo("zz");
+        assertThat(results).extracting(EmployeeView::id).containsExactly(20_000L);
+        assertThat(none).isEmpty();
+    }
+}
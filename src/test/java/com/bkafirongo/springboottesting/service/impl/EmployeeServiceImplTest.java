@@ -1,24 +1,47 @@
 package com.bkafirongo.springboottesting.service.impl;
 
+import com.bkafirongo.springboottesting.cache.EmployeeCache;
+import com.bkafirongo.springboottesting.cache.EmployeeLookupCoalescer;
+import com.bkafirongo.springboottesting.exception.PreconditionFailedException;
 import com.bkafirongo.springboottesting.exception.ResourceNotFoundException;
 import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeBulkResult;
+import com.bkafirongo.springboottesting.model.EmployeeChangeEvent;
+import com.bkafirongo.springboottesting.model.EmployeeChunkResult;
+import com.bkafirongo.springboottesting.model.EmployeePage;
+import com.bkafirongo.springboottesting.model.EmployeeView;
+import com.bkafirongo.springboottesting.repository.EmployeeChangeEventRepository;
 import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import com.bkafirongo.springboottesting.search.EmployeeSearchIndex;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +49,20 @@ class EmployeeServiceImplTest {
 
     @Mock
     private EmployeeRepository employeeRepository;
+    @Spy
+    private EmployeeCache employeeCache = new EmployeeCache(100, Duration.ofMinutes(1));
+
+    @Mock
+    private EmployeeLookupCoalescer lookupCoalescer;
+
+    @Spy
+    private EmployeeSearchIndex searchIndex = new EmployeeSearchIndex();
+    @Mock
+    private EmployeeChangeEventRepository changeEvents;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
     @InjectMocks
     private EmployeeServiceImpl employeeService;
     private Employee employee;
@@ -45,28 +82,128 @@ class EmployeeServiceImplTest {
     @Test
     void givenEmployeeObject_whenSaveEmployee_thenReturnSavedEmployee() {
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.empty());
-        given(employeeRepository.save(employee))
+        given(employeeRepository.saveAndFlush(employee))
                 .willReturn(employee);
         // when - condition or the behaviour that we are going to test
         Employee savedEmployee = employeeService.saveEmployee(employee);
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never())
+                .findByEmail(anyString());
+        verify(changeEvents, times(1))
+                .append(EmployeeChangeEvent.Type.CREATED, employee);
     }
 
     @DisplayName("JUnit test for save employee which throws exception")
     @Test
     void givenEmployeeObject_whenSaveEmployee_thenThrowError() {
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Duplicate entry", null, "employees." + Employee.EMAIL_UNIQUE_CONSTRAINT)));
+        // when - condition or the behaviour that we are going to test
+        assertThrows(ResourceNotFoundException.class, () -> employeeService
+                .saveEmployee(employee));
+        // then - verify the output
+        assertThat(employeeCache.getById(employee.getId())).isEmpty();
+        verify(changeEvents, never())
+                .append(any(), any());
+    }
+
+    @DisplayName("JUnit test for save employee which rethrows other constraint violations")
+    @Test
+    void givenEmployeeWithoutName_whenSaveEmployee_thenRethrowError() {
+        // given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Column 'first_name' cannot be null", null, null)));
+        // when - condition or the behaviour that we are going to test
+        assertThrows(DataIntegrityViolationException.class, () -> employeeService
+                .saveEmployee(employee));
+        // then - verify the output
+        assertThat(employeeCache.getById(employee.getId())).isEmpty();
+    }
+
+    @DisplayName("JUnit test for save employee which throws exception from cached email")
+    @Test
+    void givenCachedEmployee_whenSaveEmployeeWithSameEmail_thenThrowErrorWithoutQuery() {
+        // given - precondition or setup
+        employeeCache.put(employee);
         // when - condition or the behaviour that we are going to test
         assertThrows(ResourceNotFoundException.class, () -> employeeService
                 .saveEmployee(employee));
         // then - verify the output
+        verify(employeeRepository, never())
+                .findByEmail(anyString());
+        verify(employeeRepository, never())
+                .saveAndFlush(any(Employee.class));
+    }
+
+    @DisplayName("JUnit test for bulk save employees")
+    @Test
+    void givenEmployeeList_whenSaveEmployees_thenReturnResultPerItem() {
+        // given - precondition or setup
+        Employee existing = Employee.builder().firstName("Jane").lastName("Doe").email("jane@example.com").build();
+        Employee repeated = Employee.builder().firstName("John").lastName("Doe").email("email@example.com").build();
+        Employee invalid = Employee.builder().firstName("No").lastName("Email").build();
+        given(employeeRepository.findExistingEmails(List.of("email@example.com", "jane@example.com")))
+                .willReturn(Set.of("jane@example.com"));
+        given(employeeRepository.batchInsert(List.of(employee)))
+                .willReturn(List.of(employee));
+        // when - condition or the behaviour that we are going to test
+        List<EmployeeBulkResult> results = employeeService.saveEmployees(List.of(employee, existing, repeated, invalid));
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBulkResult::getStatus).containsExactly(
+                EmployeeBulkResult.Status.CREATED,
+                EmployeeBulkResult.Status.DUPLICATE,
+                EmployeeBulkResult.Status.DUPLICATE,
+                EmployeeBulkResult.Status.INVALID);
+        assertThat(results.get(0).getId()).isEqualTo(1L);
         verify(employeeRepository, never())
                 .save(any(Employee.class));
+        verify(changeEvents, times(1))
+                .appendAll(EmployeeChangeEvent.Type.CREATED, List.of(employee));
+    }
+
+    @DisplayName("JUnit test for bulk save employees which matches existing emails in any case")
+    @Test
+    void givenExistingEmailInOtherCase_whenSaveEmployees_thenReportDuplicate() {
+        // given - precondition or setup
+        Employee shouted = Employee.builder().firstName("John").lastName("Doe").email("EMAIL@example.com").build();
+        given(employeeRepository.findExistingEmails(List.of("EMAIL@example.com")))
+                .willReturn(Set.of("email@example.com"));
+        // when - condition or the behaviour that we are going to test
+        List<EmployeeBulkResult> results = employeeService.saveEmployees(List.of(shouted));
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBulkResult::getStatus)
+                .containsExactly(EmployeeBulkResult.Status.DUPLICATE);
+        verify(employeeRepository, never())
+                .batchInsert(List.of(shouted));
+    }
+
+    @DisplayName("JUnit test for bulk save employees racing a concurrent insert of the same email")
+    @Test
+    void givenEmailInsertedConcurrently_whenSaveEmployees_thenRetryRowByRowAndReportDuplicate() {
+        // given - precondition or setup
+        Employee taken = Employee.builder().id(2L).firstName("Jane").lastName("Doe").email("jane@example.com").build();
+        var duplicate = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", null, "employees." + Employee.EMAIL_UNIQUE_CONSTRAINT));
+        given(employeeRepository.findExistingEmails(List.of("email@example.com", "jane@example.com")))
+                .willReturn(Set.of());
+        given(employeeRepository.batchInsert(List.of(employee, taken)))
+                .willThrow(duplicate);
+        given(employeeRepository.batchInsert(List.of(employee)))
+                .willReturn(List.of(employee));
+        given(employeeRepository.batchInsert(List.of(taken)))
+                .willThrow(duplicate);
+        // when - condition or the behaviour that we are going to test
+        List<EmployeeBulkResult> results = employeeService.saveEmployees(List.of(employee, taken));
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBulkResult::getStatus).containsExactly(
+                EmployeeBulkResult.Status.CREATED,
+                EmployeeBulkResult.Status.DUPLICATE);
+        verify(changeEvents, times(1))
+                .appendAll(EmployeeChangeEvent.Type.CREATED, List.of(employee));
     }
 
     @DisplayName("JUnit test for get all employees")
@@ -96,74 +233,327 @@ class EmployeeServiceImplTest {
                 .isEmpty();
     }
 
+    @DisplayName("JUnit test for get employees page with a next cursor")
+    @Test
+    void givenMoreRowsThanPageSize_whenGetEmployeesPage_thenReturnNextCursor() {
+        // given - precondition or setup
+        Employee employee2 = Employee.builder().id(2).firstName("Jane").lastName("Doe").email("jane@example.com").build();
+        given(employeeRepository.findNextPage(0L, PageRequest.ofSize(2)))
+                .willReturn(List.of(employee, employee2));
+        // when - condition or the behaviour that we are going to test
+        EmployeePage<Employee> page = employeeService.getEmployeesPage(null, 1);
+        // then - verify the output
+        assertThat(page.getContent()).containsExactly(employee);
+        assertThat(page.getNextCursor()).isEqualTo(EmployeeServiceImpl.encodeCursor(1L));
+    }
+
+    @DisplayName("JUnit test for get employees last page")
+    @Test
+    void givenCursor_whenGetEmployeesLastPage_thenReturnNoCursor() {
+        // given - precondition or setup
+        given(employeeRepository.findNextPage(1L, PageRequest.ofSize(EmployeeServiceImpl.MAX_PAGE_SIZE + 1)))
+                .willReturn(List.of());
+        // when - condition or the behaviour that we are going to test
+        EmployeePage<Employee> page = employeeService.getEmployeesPage(EmployeeServiceImpl.encodeCursor(1L), Integer.MAX_VALUE);
+        // then - verify the output
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @DisplayName("JUnit test for get employee views page")
+    @Test
+    void givenMoreViewsThanPageSize_whenGetEmployeeViewsPage_thenReturnNextCursor() {
+        // given - precondition or setup
+        var view1 = new EmployeeView(1, "John", "Doe", "email@example.com");
+        var view2 = new EmployeeView(2, "Jane", "Doe", "jane@example.com");
+        given(employeeRepository.findNextViewPage(0L, PageRequest.ofSize(2)))
+                .willReturn(List.of(view1, view2));
+        // when - condition or the behaviour that we are going to test
+        EmployeePage<EmployeeView> page = employeeService.getEmployeeViewsPage(null, 1);
+        // then - verify the output
+        assertThat(page.getContent()).containsExactly(view1);
+        assertThat(page.getNextCursor()).isEqualTo(EmployeeServiceImpl.encodeCursor(1L));
+        verify(employeeRepository, never())
+                .findNextPage(anyLong(), any());
+    }
+
+    @DisplayName("JUnit test for get employees page which throws exception")
+    @Test
+    void givenInvalidCursor_whenGetEmployeesPage_thenThrowException() {
+        // when - condition or the behaviour that we are going to test
+        assertThrows(IllegalArgumentException.class, () -> employeeService
+                .getEmployeesPage("not-a-cursor", 10));
+        // then - verify the output
+        verify(employeeRepository, never())
+                .findNextPage(anyLong(), any());
+    }
+
     @DisplayName("JUnit test for get employee by Id")
     @Test
     void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() {
         // given - precondition or setup
-        given(employeeRepository.findById(1L))
+        given(lookupCoalescer.findById(1L))
+                .willReturn(Optional.of(employee));
+        // when - condition or the behaviour that we are going to test
+        Optional<Employee> optionalEmployee = employeeService
+                .getEmployeeById(employee.getId());
+        // then - verify the output
+        assertThat(optionalEmployee).isPresent();
+    }
+
+    @DisplayName("JUnit test for get employee by Id served from cache")
+    @Test
+    void givenEmployeeId_whenGetEmployeeByIdTwice_thenQueryOnce() {
+        // given - precondition or setup
+        given(lookupCoalescer.findById(1L))
                 .willReturn(Optional.of(employee));
         // when - condition or the behaviour that we are going to test
+        employeeService.getEmployeeById(employee.getId());
         Optional<Employee> optionalEmployee = employeeService
                 .getEmployeeById(employee.getId());
         // then - verify the output
         assertThat(optionalEmployee).isPresent();
+        verify(lookupCoalescer, times(1))
+                .findById(1L);
+        assertThat(employeeCache.idStats().hitCount()).isEqualTo(1);
+    }
+
+    @DisplayName("JUnit test for get employees by ids")
+    @Test
+    void givenIds_whenGetEmployeesByIds_thenQueryUncachedIdsOnce() {
+        // given - precondition or setup
+        var other = Employee.builder().id(2).firstName("Jane").lastName("Doe").email("jane@example.com").build();
+        employeeCache.put(employee);
+        given(employeeRepository.findAllById(List.of(2L, 3L)))
+                .willReturn(List.of(other));
+        // when - condition or the behaviour that we are going to test
+        List<Employee> employees = employeeService.getEmployeesByIds(List.of(2L, 1L, 2L, 3L));
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(2L, 1L);
+        assertThat(employeeCache.getById(2L)).isPresent();
+        verify(employeeRepository, times(1))
+                .findAllById(any());
+    }
+
+    @DisplayName("JUnit test for get employees by too many ids")
+    @Test
+    void givenTooManyIds_whenGetEmployeesByIds_thenThrowsException() {
+        // given - precondition or setup
+        var ids = LongStream.rangeClosed(1, EmployeeServiceImpl.MAX_LOOKUP_IDS + 1).boxed().toList();
+        // when - condition or the behaviour that we are going to test
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesByIds(ids));
+        // then - verify the output
+        verify(employeeRepository, never())
+                .findAllById(any());
     }
 
     @DisplayName("JUnit test for update employee")
     @Test
     void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedUser() {
         // given - precondition or setup
-        given(employeeRepository.findById(1L))
-                .willReturn(Optional.of(employee));
-        given(employeeRepository.save(employee))
-                .willReturn(employee);
         employee.setEmail("newemail@email.com");
         employee.setFirstName("Smile");
+        given(employeeRepository.updateById(1L, "Smile", "Doe", "newemail@email.com"))
+                .willReturn(1);
+        given(employeeRepository.findVersionById(1L))
+                .willReturn(Optional.of(1L));
         // when - condition or the behaviour that we are going to test
-        Employee updatedEmployee = employeeService.updateEmployee(this.employee);
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(this.employee);
         // then - verify the output
-        assertThat(updatedEmployee).isNotNull();
-        assertThat(updatedEmployee.getFirstName()).isEqualTo("Smile");
+        assertThat(updatedEmployee).isPresent();
+        assertThat(updatedEmployee.get().getFirstName()).isEqualTo("Smile");
+        assertThat(updatedEmployee.get().getVersion()).isEqualTo(1L);
+        assertThat(employeeCache.getByEmail("newemail@email.com")).isPresent();
+        verify(employeeRepository, never())
+                .findById(anyLong());
+        verify(employeeRepository, never())
+                .save(any(Employee.class));
+        verify(changeEvents, times(1))
+                .append(EmployeeChangeEvent.Type.UPDATED, employee);
     }
 
-    @DisplayName("JUnit test for update employee which throws exception")
+    @DisplayName("JUnit test for update employee when not found")
     @Test
-    void givenEmployee_whenUpdateEmployeeWhenNotFound_thenThrowException() {
+    void givenEmployee_whenUpdateEmployeeWhenNotFound_thenReturnEmpty() {
         // given - precondition or setup
-        given(employeeRepository.findById(employee.getId()))
-                .willReturn(Optional.empty());
+        employeeCache.put(employee);
+        given(employeeRepository.updateById(anyLong(), any(), any(), any()))
+                .willReturn(0);
+        // when - condition or the behaviour that we are going to test
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(employee);
+        // then - verify the output
+        assertThat(updatedEmployee).isEmpty();
+        assertThat(employeeCache.getById(employee.getId())).isEmpty();
+    }
+
+    @DisplayName("JUnit test for update employee with duplicate email")
+    @Test
+    void givenDuplicateEmail_whenUpdateEmployee_thenThrowException() {
+        // given - precondition or setup
+        given(employeeRepository.updateById(anyLong(), any(), any(), any()))
+                .willThrow(new DataIntegrityViolationException("duplicate",
+                        new ConstraintViolationException("duplicate", null, Employee.EMAIL_UNIQUE_CONSTRAINT)));
         // when - condition or the behaviour that we are going to test
         assertThrows(ResourceNotFoundException.class, () -> employeeService
                 .updateEmployee(employee));
         // then - verify the output
+        assertThat(employeeCache.getById(employee.getId())).isEmpty();
+    }
+
+    @DisplayName("JUnit test for patch employee")
+    @Test
+    void givenChangedEmail_whenPatchEmployee_thenUpdateOnlyEmail() {
+        // given - precondition or setup
+        given(employeeRepository.findByIdForUpdate(1L))
+                .willReturn(Optional.of(employee));
+        given(employeeRepository.patchById(1L, 0L, Map.of("email", "new@example.com")))
+                .willReturn(1);
+        // when - condition or the behaviour that we are going to test
+        Optional<Employee> patchedEmployee = employeeService.patchEmployee(1L,
+                Map.of("email", "new@example.com", "firstName", employee.getFirstName()));
+        // then - verify the output
+        assertThat(patchedEmployee).get().extracting(Employee::getEmail).isEqualTo("new@example.com");
+        assertThat(employeeCache.getByEmail("new@example.com")).isPresent();
+        // the employee came from the persistence context and must not be flushed again
+        verify(entityManager, times(1)).detach(employee);
+    }
+
+    @DisplayName("JUnit test for patch employee without changes")
+    @Test
+    void givenUnchangedFields_whenPatchEmployee_thenSkipWrite() {
+        // given - precondition or setup
+        given(employeeRepository.findByIdForUpdate(1L))
+                .willReturn(Optional.of(employee));
+        // when - condition or the behaviour that we are going to test
+        Optional<Employee> patchedEmployee = employeeService.patchEmployee(1L, Map.of("email", employee.getEmail()));
+        // then - verify the output
+        assertThat(patchedEmployee).isPresent();
         verify(employeeRepository, never())
-                .save(any(Employee.class));
+                .patchById(anyLong(), anyLong(), any());
+    }
+
+    @DisplayName("JUnit test for patch employee whose cached copy is stale")
+    @Test
+    void givenStaleCache_whenPatchEmployee_thenCompareAndWriteCurrentVersion() {
+        // given - precondition or setup
+        var cached = Employee.builder().id(1L).firstName("John").lastName("Doe").email(employee.getEmail()).version(1).build();
+        employeeCache.put(cached);
+        employee.setVersion(2);
+        given(employeeRepository.findByIdForUpdate(1L))
+                .willReturn(Optional.of(employee));
+        given(employeeRepository.patchById(1L, 2L, Map.of("lastName", "Smith")))
+                .willReturn(1);
+        // when - condition or the behaviour that we are going to test
+        Optional<Employee> patchedEmployee = employeeService.patchEmployee(1L, Map.of("lastName", "Smith"), 2L);
+        // then - verify the output
+        assertThat(patchedEmployee).get()
+                .extracting(Employee::getLastName, Employee::getVersion)
+                .containsExactly("Smith", 3L);
+        verify(employeeRepository, never())
+                .findById(anyLong());
+    }
+
+    @DisplayName("JUnit test for patch employee which removes a required field")
+    @Test
+    void givenNullField_whenPatchEmployee_thenThrowException() {
+        // given - precondition or setup
+        given(employeeRepository.findByIdForUpdate(1L))
+                .willReturn(Optional.of(employee));
+        var patch = new HashMap<String, Object>();
+        patch.put("lastName", null);
+        // when - condition or the behaviour that we are going to test
+        assertThrows(IllegalArgumentException.class, () -> employeeService
+                .patchEmployee(1L, patch));
+        // then - verify the output
+        verify(employeeRepository, never())
+                .patchById(anyLong(), anyLong(), any());
+    }
+
+    @DisplayName("JUnit test for update employee with matching version")
+    @Test
+    void givenCurrentVersion_whenUpdateEmployee_thenBumpVersion() {
+        // given - precondition or setup
+        given(employeeRepository.updateByIdAndVersion(1L, 4L, "John", "Doe", employee.getEmail()))
+                .willReturn(1);
+        // when - condition or the behaviour that we are going to test
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(employee, 4L);
+        // then - verify the output
+        assertThat(updatedEmployee).get().extracting(Employee::getVersion).isEqualTo(5L);
+        verify(employeeRepository, never())
+                .findVersionById(anyLong());
+    }
+
+    @DisplayName("JUnit test for update employee with stale version")
+    @Test
+    void givenStaleVersion_whenUpdateEmployee_thenThrowException() {
+        // given - precondition or setup
+        given(employeeRepository.updateByIdAndVersion(anyLong(), anyLong(), any(), any(), any()))
+                .willReturn(0);
+        given(employeeRepository.existsById(1L))
+                .willReturn(true);
+        // when - condition or the behaviour that we are going to test
+        assertThrows(PreconditionFailedException.class, () -> employeeService
+                .updateEmployee(employee, 4L));
+        // then - verify the output
+        assertThat(employeeCache.getById(1L)).isEmpty();
+    }
+
+    @DisplayName("JUnit test for patch employee with stale version")
+    @Test
+    void givenStaleVersion_whenPatchEmployee_thenThrowException() {
+        // given - precondition or setup
+        employee.setVersion(2);
+        given(employeeRepository.findByIdForUpdate(1L))
+                .willReturn(Optional.of(employee));
+        // when - condition or the behaviour that we are going to test
+        assertThrows(PreconditionFailedException.class, () -> employeeService
+                .patchEmployee(1L, Map.of("email", "new@example.com"), 1L));
+        // then - verify the output
+        verify(employeeRepository, never())
+                .patchById(anyLong(), anyLong(), any());
+    }
+
+    @DisplayName("JUnit test for delete employee with stale version")
+    @Test
+    void givenStaleVersion_whenDeleteEmployee_thenThrowException() {
+        // given - precondition or setup
+        given(employeeRepository.deleteEmployeeByIdAndVersion(1L, 1L))
+                .willReturn(0);
+        given(employeeRepository.existsById(1L))
+                .willReturn(true);
+        // when - condition or the behaviour that we are going to test
+        assertThrows(PreconditionFailedException.class, () -> employeeService
+                .deleteEmployee(1L, 1L));
+        // then - verify the output
+        verify(employeeRepository, never())
+                .deleteEmployeeById(anyLong());
+        verify(changeEvents, never())
+                .appendDeleted(anyLong(), any());
     }
 
     @DisplayName("JUnit test for delete employee")
     @Test
     void givenEmployeeId_whenDeleteEmployee_thenDoNothing() {
         // given - precondition or setup
-        given(employeeRepository.findById(1L))
-                .willReturn(Optional.of(employee));
-        willDoNothing()
-                .given(employeeRepository)
-                .delete(employee);
+        given(employeeRepository.deleteEmployeeById(1L))
+                .willReturn(1);
         // when - condition or the behaviour that we are going to test
         employeeService.deleteEmployee(this.employee.getId());
         // then - verify the output
         verify(employeeRepository, times(1))
-                .delete(any(Employee.class));
-        verify(employeeRepository, times(1))
+                .deleteEmployeeById(1L);
+        verify(employeeRepository, never())
                 .findById(anyLong());
+        verify(changeEvents, times(1))
+                .appendDeleted(1L, null);
     }
 
     @DisplayName("JUnit test for delete employee which throws exception")
     @Test
     void givenEmployee_whenNotExistingEmployee_thenThrowException() {
         // given - precondition or setup
-        given(employeeRepository.findById(employee.getId()))
-                .willReturn(Optional.empty());
+        given(employeeRepository.deleteEmployeeById(employee.getId()))
+                .willReturn(0);
         // when - condition or the behaviour that we are going to test
         assertThrows(ResourceNotFoundException.class, () -> employeeService
                 .deleteEmployee(employee.getId()));
@@ -171,4 +561,168 @@ class EmployeeServiceImplTest {
         verify(employeeRepository, never())
                 .delete(any(Employee.class));
     }
-}
\ No newline at end of file
+
+    @DisplayName("JUnit test for search index kept current on save and delete")
+    @Test
+    void givenSavedAndDeletedEmployee_whenSearchByPrefix_thenIndexFollows() {
+        // given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee))
+                .willReturn(employee);
+        given(employeeRepository.deleteEmployeeById(employee.getId()))
+                .willReturn(1);
+        // when - condition or the behaviour that we are going to test
+        employeeService.saveEmployee(employee);
+        var afterSave = employeeService.searchEmployeesByPrefix("jo do", 0);
+        employeeService.deleteEmployee(employee.getId());
+        var afterDelete = employeeService.searchEmployeesByPrefix("jo do", 0);
+        // then - verify the output
+        assertThat(afterSave).extracting(EmployeeView::email).containsExactly(employee.getEmail());
+        assertThat(afterDelete).isEmpty();
+    }
+
+    @DisplayName("JUnit test for delete employee evicts cache")
+    @Test
+    void givenCachedEmployee_whenDeleteEmployee_thenEvictFromCache() {
+        // given - precondition or setup
+        employeeCache.put(employee);
+        given(employeeRepository.deleteEmployeeById(employee.getId()))
+                .willReturn(1);
+        // when - condition or the behaviour that we are going to test
+        employeeService.deleteEmployee(employee.getId());
+        // then - verify the output
+        assertThat(employeeCache.getById(employee.getId())).isEmpty();
+        assertThat(employeeCache.getByEmail(employee.getEmail())).isEmpty();
+    }
+
+    @DisplayName("JUnit test for save employee which rolls back leaving cache and search index untouched")
+    @Test
+    void givenRolledBackTransaction_whenSaveEmployee_thenNotCachedOrIndexed() {
+        // given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee))
+                .willReturn(employee);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when - condition or the behaviour that we are going to test
+            employeeService.saveEmployee(employee);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // then - verify the output
+        assertThat(employeeCache.getById(employee.getId())).isEmpty();
+        assertThat(employeeService.searchEmployeesByPrefix("jo do", 0)).isEmpty();
+    }
+
+    @DisplayName("JUnit test for delete employee evicts again after commit")
+    @Test
+    void givenConcurrentReadBeforeCommit_whenDeleteEmployee_thenEvictAfterCommit() {
+        // given - precondition or setup
+        given(employeeRepository.deleteEmployeeById(employee.getId()))
+                .willReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.deleteEmployee(employee.getId());
+            // a concurrent read of the still committed row caches it again
+            employeeCache.put(employee);
+            // when - condition or the behaviour that we are going to test
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // then - verify the output
+        assertThat(employeeCache.getById(employee.getId())).isEmpty();
+    }
+
+    @DisplayName("JUnit test for update employee caches the new version after commit")
+    @Test
+    void givenConcurrentReadBeforeCommit_whenUpdateEmployee_thenCacheNewVersionAfterCommit() {
+        // given - precondition or setup
+        var stale = Employee.builder().id(employee.getId()).firstName("John").lastName("Doe").email("old@example.com").build();
+        given(employeeRepository.updateById(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail()))
+                .willReturn(1);
+        given(employeeRepository.findVersionById(employee.getId()))
+                .willReturn(Optional.of(1L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.updateEmployee(employee);
+            // a concurrent read of the still committed row caches it again
+            employeeCache.put(stale);
+            // when - condition or the behaviour that we are going to test
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // then - verify the output
+        assertThat(employeeCache.getById(employee.getId())).get()
+                .extracting(Employee::getEmail, Employee::getVersion)
+                .containsExactly(employee.getEmail(), 1L);
+        assertThat(employeeCache.getByEmail("old@example.com")).isEmpty();
+    }
+
+    @DisplayName("JUnit test for rewrite email domain chunk which skips addresses already taken")
+    @Test
+    void givenEmployeesOfDomain_whenRewriteEmailDomain_thenUpdateAndSkipTaken() {
+        // given - precondition or setup
+        var taken = Employee.builder().id(2).firstName("Jane").lastName("Doe").email("jane@old.example.com").build();
+        given(employeeRepository.findNextPageByEmailLike(0L, "%@old.example.com", PageRequest.ofSize(3)))
+                .willReturn(List.of(employee, taken));
+        employee.setEmail("email@old.example.com");
+        employeeCache.put(employee);
+        given(employeeRepository.findExistingEmails(any()))
+                .willReturn(Set.of("jane@example.com"));
+        // when - condition or the behaviour that we are going to test
+        EmployeeChunkResult result = employeeService.rewriteEmailDomain(0L, 3, "old.example.com", "example.com");
+        // then - verify the output
+        assertThat(result.getLastId()).isEqualTo(2L);
+        assertThat(result.getProcessed()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.isDone()).isTrue();
+        assertThat(employee.getEmail()).isEqualTo("email@example.com");
+        assertThat(taken.getEmail()).isEqualTo("jane@old.example.com");
+        assertThat(employeeCache.getById(employee.getId())).isEmpty();
+        verify(entityManager, times(1)).flush();
+        verify(changeEvents, times(1))
+                .appendAll(EmployeeChangeEvent.Type.UPDATED, List.of(employee));
+    }
+
+    @DisplayName("JUnit test for rewrite email domain chunk which skips addresses taken in another letter case")
+    @Test
+    void givenCaseVariantTaken_whenRewriteEmailDomain_thenSkipCollisions() {
+        // given - precondition or setup
+        var sameInChunk = Employee.builder().id(2).firstName("John").lastName("Doe").email("JOHN@old.example.com").build();
+        var caseVariant = Employee.builder().id(3).firstName("Jane").lastName("Doe").email("Jane@old.example.com").build();
+        employee.setEmail("john@old.example.com");
+        given(employeeRepository.findNextPageByEmailLike(0L, "%@old.example.com", PageRequest.ofSize(3)))
+                .willReturn(List.of(employee, sameInChunk, caseVariant));
+        given(employeeRepository.findExistingEmails(any()))
+                .willReturn(Set.of("jane@example.com"));
+        // when - condition or the behaviour that we are going to test
+        EmployeeChunkResult result = employeeService.rewriteEmailDomain(0L, 3, "old.example.com", "example.com");
+        // then - verify the output
+        assertThat(result.getProcessed()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(employee.getEmail()).isEqualTo("john@example.com");
+        assertThat(sameInChunk.getEmail()).isEqualTo("JOHN@old.example.com");
+        assertThat(caseVariant.getEmail()).isEqualTo("Jane@old.example.com");
+        verify(changeEvents, times(1))
+                .appendAll(EmployeeChangeEvent.Type.UPDATED, List.of(employee));
+    }
+
+    @DisplayName("JUnit test for delete by email domain chunk")
+    @Test
+    void givenEmployeesOfDomain_whenDeleteByEmailDomain_thenDeleteChunk() {
+        // given - precondition or setup
+        employee.setEmail("email@old.example.com");
+        given(employeeRepository.findNextPageByEmailLike(0L, "%@old.example.com", PageRequest.ofSize(1)))
+                .willReturn(List.of(employee));
+        // when - condition or the behaviour that we are going to test
+        EmployeeChunkResult result = employeeService.deleteByEmailDomain(0L, 1, "old.example.com");
+        // then - verify the output
+        assertThat(result.getLastId()).isEqualTo(employee.getId());
+        assertThat(result.isDone()).isFalse();
+        verify(employeeRepository, times(1)).deleteAllByIdInBatch(List.of(employee.getId()));
+        verify(changeEvents, times(1))
+                .appendAll(EmployeeChangeEvent.Type.DELETED, List.of(employee));
+    }
+}
@@ -0,0 +1,188 @@
+package com.bkafirongo.springboottesting.service.impl;
+
+import com.bkafirongo.springboottesting.model.Employee;
+import com.bkafirongo.springboottesting.model.EmployeeBulkResult;
+import com.bkafirongo.springboottesting.model.EmployeeImportProgress;
+import com.bkafirongo.springboottesting.model.EmployeeTransferFormat;
+import com.bkafirongo.springboottesting.repository.EmployeeRepository;
+import com.bkafirongo.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeTransferServiceImplTest {
+
+    @Mock
+    private EmployeeService employeeService;
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeTransferServiceImpl transferService;
+    private final List<EmployeeImportProgress> progress = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transferService = new EmployeeTransferServiceImpl(employeeService, employeeRepository,
+                Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(transferService, "batchSize", 2);
+    }
+
+    @DisplayName("JUnit test for exporting employees as CSV")
+    @Test
+    void givenEmployees_whenExportCsv_thenWriteHeaderAndRows() throws Exception {
+        // given - precondition or setup
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee(1, "John", "Doe", "john@example.com"));
+            consumer.accept(employee(2, "Jane", "O'Neil, Jr", "jane@example.com"));
+            return null;
+        }).given(employeeRepository).exportAll(any());
+        var output = new ByteArrayOutputStream();
+        // when - condition or the behaviour that we are going to test
+        transferService.exportEmployees(EmployeeTransferFormat.CSV, output);
+        // then - verify the output
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                id,firstName,lastName,email,version
+                1,John,Doe,john@example.com,3
+                2,Jane,"O'Neil, Jr",jane@example.com,3
+                """);
+    }
+
+    @DisplayName("JUnit test for exporting employees as NDJSON")
+    @Test
+    void givenEmployees_whenExportNdjson_thenWriteOneObjectPerLine() throws Exception {
+        // given - precondition or setup
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee(1, "John", "Doe", "john@example.com"));
+            consumer.accept(employee(2, "Jane", "Doe", "jane@example.com"));
+            return null;
+        }).given(employeeRepository).exportAll(any());
+        var output = new ByteArrayOutputStream();
+        // when - condition or the behaviour that we are going to test
+        transferService.exportEmployees(EmployeeTransferFormat.NDJSON, output);
+        // then - verify the output
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n"))
+                .hasSize(2)
+                .allMatch(line -> line.startsWith("{\"id\":"));
+    }
+
+    @DisplayName("JUnit test for importing CSV in batches with per-row errors")
+    @Test
+    void givenCsvWithBadRows_whenImport_thenReportProgressAndErrorsPerRow() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(any()))
+                .willAnswer(invocation -> created(invocation.getArgument(0)));
+        var csv = """
+                firstName,lastName,email
+                John,Doe,john@example.com
+                Jane,Doe,jane@example.com,extra
+
+                Max,Doe,max@example.com
+                """;
+        // when - condition or the behaviour that we are going to test
+        transferService.importEmployees(EmployeeTransferFormat.CSV, stream(csv), progress::add);
+        // then - verify the output
+        assertThat(progress).extracting(EmployeeImportProgress::isDone).containsExactly(false, true);
+        var last = progress.get(1);
+        assertThat(last.getProcessed()).isEqualTo(3);
+        assertThat(last.getCreated()).isEqualTo(2);
+        assertThat(last.getFailed()).isEqualTo(1);
+        assertThat(progress.get(0).getErrors()).singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getIndex()).isEqualTo(1);
+                    assertThat(error.getStatus()).isEqualTo(EmployeeBulkResult.Status.INVALID);
+                });
+    }
+
+    @DisplayName("JUnit test for importing NDJSON which stops at a syntax error")
+    @Test
+    void givenNdjsonWithSyntaxError_whenImport_thenKeepRowsBeforeAndReportMessage() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(any()))
+                .willAnswer(invocation -> created(invocation.getArgument(0)));
+        var ndjson = """
+                {"firstName":"John","lastName":"Doe","email":"john@example.com","id":42}
+                {"firstName":"Jane","lastName":
+                """;
+        // when - condition or the behaviour that we are going to test
+        transferService.importEmployees(EmployeeTransferFormat.NDJSON, stream(ndjson), progress::add);
+        // then - verify the output
+        assertThat(progress).singleElement()
+                .satisfies(last -> {
+                    assertThat(last.isDone()).isTrue();
+                    assertThat(last.getCreated()).isEqualTo(1);
+                    assertThat(last.getMessage()).startsWith("Upload is not valid NDJSON at row 1");
+                });
+    }
+
+    @DisplayName("JUnit test for resuming a CSV import after the rows already imported")
+    @Test
+    void givenSkipRows_whenImport_thenOnlyImportRemainingRows() throws Exception {
+        // given - precondition or setup
+        var imported = new ArrayList<String>();
+        given(employeeService.saveEmployees(any()))
+                .willAnswer(invocation -> {
+                    Collection<Employee> employees = invocation.getArgument(0);
+                    employees.forEach(employee -> imported.add(employee.getEmail()));
+                    return created(employees);
+                });
+        var csv = """
+                firstName,lastName,email
+                John,Doe,john@example.com
+                Jane,Doe,jane@example.com
+                Max,Doe,max@example.com
+                """;
+        // when - condition or the behaviour that we are going to test
+        transferService.importEmployees(EmployeeTransferFormat.CSV, stream(csv), 2, progress::add);
+        // then - verify the output
+        assertThat(imported).containsExactly("max@example.com");
+        assertThat(progress.get(progress.size() - 1))
+                .satisfies(last -> {
+                    assertThat(last.isDone()).isTrue();
+                    assertThat(last.getProcessed()).isEqualTo(3);
+                    assertThat(last.getCreated()).isEqualTo(1);
+                });
+    }
+
+    private static List<EmployeeBulkResult> created(Collection<Employee> employees) {
+        var results = new ArrayList<EmployeeBulkResult>();
+        for (var employee : employees) {
+            assertThat(employee.getId()).isZero();
+            results.add(EmployeeBulkResult.builder()
+                    .index(results.size())
+                    .email(employee.getEmail())
+                    .id((long) results.size() + 1)
+                    .status(EmployeeBulkResult.Status.CREATED)
+                    .build());
+        }
+        return results;
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String email) {
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).version(3).build();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}